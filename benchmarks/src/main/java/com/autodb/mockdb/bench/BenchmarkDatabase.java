@@ -0,0 +1,25 @@
+package com.autodb.mockdb.bench;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.Map;
+
+/** Boots Hibernate on a private in-memory H2 database holding only the entities of one benchmark graph. */
+final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {}
+
+    static EntityManagerFactory open(String graph) {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(new DriverManagerDataSource("jdbc:h2:mem:" + graph + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        factory.setPackagesToScan("com.autodb.mockdb.bench.model." + graph);
+        factory.setPersistenceUnitName(graph);
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+        factory.afterPropertiesSet();
+        return factory.getObject();
+    }
+}
@@ -0,0 +1,30 @@
+package com.autodb.mockdb.bench;
+
+import com.autodb.mockdb.seeder.implementation.CollectionPopulator;
+import com.autodb.mockdb.seeder.implementation.ReferenceResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class CollectionPopulatorBenchmark extends PipelineState {
+
+    private CollectionPopulator populator;
+
+    @Override
+    protected void prepare() throws IllegalAccessException {
+        creator.createAll();
+        new ReferenceResolver(em, props, creator.getCreatedEntities(), writer).fixMissingReferences();
+        populator = new CollectionPopulator(em, props, creator.getCreatedEntities(), writer);
+    }
+
+    @Benchmark
+    public void populateCollections() throws IllegalAccessException {
+        populator.populateCollections();
+    }
+
+    @Benchmark
+    public void populateManyToManyRelations() throws IllegalAccessException {
+        populator.populateManyToManyRelations();
+    }
+}
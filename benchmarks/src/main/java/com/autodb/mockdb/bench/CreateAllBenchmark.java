@@ -0,0 +1,18 @@
+package com.autodb.mockdb.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+
+@State(Scope.Benchmark)
+public class CreateAllBenchmark extends PipelineState {
+
+    @Benchmark
+    public Map<Class<?>, List<Object>> createAll() {
+        creator.createAll();
+        return creator.getCreatedEntities();
+    }
+}
@@ -0,0 +1,75 @@
+package com.autodb.mockdb.bench;
+
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.provider.RandomValueProvider;
+import com.autodb.mockdb.seeder.implementation.EntityCreator;
+import com.autodb.mockdb.writer.EntityWriter;
+import com.autodb.mockdb.writer.implementation.JdbcBatchEntityWriter;
+import com.autodb.mockdb.writer.implementation.JpaEntityWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared setup for the pipeline stage benchmarks. Every invocation runs in a fresh transaction that is rolled back
+ * afterwards, so each one starts from empty tables; {@link #prepare()} runs the stages before the measured one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class PipelineState {
+
+    @Param({"star", "chain", "cycle", "mesh"})
+    public String graph;
+
+    @Param({"JPA", "JDBC_BATCH"})
+    public MockDbProperties.WriteEngine engine;
+
+    @Param({"100"})
+    public int count;
+
+    protected EntityManagerFactory emf;
+    protected MockDbProperties props;
+    protected EntityManager em;
+    protected EntityWriter writer;
+    protected EntityCreator creator;
+
+    @Setup(Level.Trial)
+    public void open() {
+        emf = BenchmarkDatabase.open(graph);
+        props = new MockDbProperties();
+        props.setCount(count);
+        props.setWriteEngine(engine);
+        // every invocation seeds the same dataset
+        props.setSeed(42L);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        emf.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void begin() throws Exception {
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+        writer = engine == MockDbProperties.WriteEngine.JDBC_BATCH
+                ? new JdbcBatchEntityWriter(em, props.getBatchSize())
+                : new JpaEntityWriter(em);
+        creator = new EntityCreator(em, props, new RandomValueProvider(props.resolveSeed()), writer);
+        prepare();
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() {
+        em.getTransaction().rollback();
+        em.close();
+    }
+
+    protected void prepare() throws Exception {}
+}
@@ -0,0 +1,23 @@
+package com.autodb.mockdb.bench;
+
+import com.autodb.mockdb.seeder.implementation.ReferenceResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class ReferenceResolverBenchmark extends PipelineState {
+
+    private ReferenceResolver resolver;
+
+    @Override
+    protected void prepare() {
+        creator.createAll();
+        resolver = new ReferenceResolver(em, props, creator.getCreatedEntities(), writer);
+    }
+
+    @Benchmark
+    public void fixMissingReferences() throws IllegalAccessException {
+        resolver.fixMissingReferences();
+    }
+}
@@ -0,0 +1,31 @@
+package com.autodb.mockdb.bench;
+
+import com.autodb.mockdb.metrics.SeedingReport;
+import com.autodb.mockdb.provider.RandomValueProvider;
+import com.autodb.mockdb.seeder.implementation.MockDbSeeder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A whole run per write engine, the way the auto-configuration does it in one transaction: rows, the foreign key
+ * round and the collections. This is the figure to compare the engines by; the stage benchmarks show where it goes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SeedAllBenchmark extends PipelineState {
+
+    private MockDbSeeder seeder;
+
+    @Override
+    protected void prepare() {
+        seeder = new MockDbSeeder(em, props, new RandomValueProvider(props.resolveSeed()));
+    }
+
+    @Benchmark
+    public SeedingReport seedAll() throws IllegalAccessException {
+        seeder.seedAll();
+        return seeder.getReport();
+    }
+}
@@ -0,0 +1,88 @@
+package com.autodb.mockdb.bench;
+
+import com.autodb.mockdb.provider.ColumnGenerator;
+import com.autodb.mockdb.provider.ColumnarValueProvider;
+import com.autodb.mockdb.provider.FakerValueProvider;
+import com.autodb.mockdb.provider.RandomValueProvider;
+import com.autodb.mockdb.provider.ValueProvider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw provider throughput. provideValue fills every field of one {@link Row} through the single-value API;
+ * fillColumns fills every field of {@link #COLUMN} rows through pre-resolved column generators.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValueProviderBenchmark {
+
+    public enum Status { ACTIVE, SUSPENDED, CLOSED }
+
+    static class Row {
+        String firstName;
+        String lastName;
+        String email;
+        String address;
+        String description;
+        String code;
+        Integer quantity;
+        long views;
+        Double rating;
+        BigDecimal price;
+        boolean active;
+        LocalDate createdOn;
+        Status status;
+    }
+
+    static final int COLUMN = 500;
+
+    @Param({"random", "faker", "faker-pooled"})
+    public String provider;
+
+    private ValueProvider values;
+    private Field[] fields;
+    private ColumnGenerator[] generators;
+    private Object[] column;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        values = switch (provider) {
+            case "faker" -> new FakerValueProvider();
+            case "faker-pooled" -> new FakerValueProvider(42L, 5000);
+            default -> new RandomValueProvider();
+        };
+        fields = Row.class.getDeclaredFields();
+        ColumnarValueProvider columnar = ColumnarValueProvider.adapt(values);
+        generators = new ColumnGenerator[fields.length];
+        for (int i = 0; i < fields.length; i++) generators[i] = columnar.generatorFor(Row.class, fields[i]);
+        column = new Object[COLUMN];
+    }
+
+    @Benchmark
+    public void provideValue(Blackhole bh) {
+        int i = index++;
+        for (Field f : fields) bh.consume(values.provideValue(Row.class, f, i));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COLUMN)
+    public void fillColumns(Blackhole bh) {
+        int first = index;
+        index += COLUMN;
+        for (ColumnGenerator g : generators) {
+            if (g == null) continue;
+            g.fill(column, first);
+            bh.consume(column);
+        }
+    }
+}
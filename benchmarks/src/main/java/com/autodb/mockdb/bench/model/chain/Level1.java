@@ -0,0 +1,18 @@
+package com.autodb.mockdb.bench.model.chain;
+
+import jakarta.persistence.*;
+
+import java.util.List;
+
+/** Deep chain: each level hangs off the previous one. */
+@Entity
+public class Level1 {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+    private Double amount;
+
+    @OneToMany(mappedBy = "parent")
+    private List<Level2> children;
+}
@@ -0,0 +1,20 @@
+package com.autodb.mockdb.bench.model.chain;
+
+import jakarta.persistence.*;
+
+import java.util.List;
+
+@Entity
+public class Level2 {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+    private Double amount;
+
+    @ManyToOne
+    private Level1 parent;
+
+    @OneToMany(mappedBy = "parent")
+    private List<Level3> children;
+}
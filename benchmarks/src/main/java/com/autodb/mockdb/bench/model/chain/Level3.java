@@ -0,0 +1,20 @@
+package com.autodb.mockdb.bench.model.chain;
+
+import jakarta.persistence.*;
+
+import java.util.List;
+
+@Entity
+public class Level3 {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+    private Double amount;
+
+    @ManyToOne
+    private Level2 parent;
+
+    @OneToMany(mappedBy = "parent")
+    private List<Level4> children;
+}
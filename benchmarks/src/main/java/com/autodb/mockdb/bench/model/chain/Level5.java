@@ -0,0 +1,15 @@
+package com.autodb.mockdb.bench.model.chain;
+
+import jakarta.persistence.*;
+
+@Entity
+public class Level5 {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+    private Double amount;
+
+    @ManyToOne
+    private Level4 parent;
+}
@@ -0,0 +1,17 @@
+package com.autodb.mockdb.bench.model.cycle;
+
+import jakarta.persistence.*;
+
+/** Cycle: Author -> Book -> Publisher -> Author, every edge nullable. */
+@Entity
+public class Author {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+
+    @ManyToOne
+    private Book favourite;
+}
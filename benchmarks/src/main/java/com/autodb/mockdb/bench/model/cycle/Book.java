@@ -0,0 +1,17 @@
+package com.autodb.mockdb.bench.model.cycle;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+@Entity
+public class Book {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String title;
+    private BigDecimal price;
+
+    @ManyToOne
+    private Publisher publisher;
+}
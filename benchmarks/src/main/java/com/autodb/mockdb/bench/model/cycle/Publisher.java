@@ -0,0 +1,15 @@
+package com.autodb.mockdb.bench.model.cycle;
+
+import jakarta.persistence.*;
+
+@Entity
+public class Publisher {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String company;
+    private String address;
+
+    @ManyToOne
+    private Author founder;
+}
@@ -0,0 +1,20 @@
+package com.autodb.mockdb.bench.model.mesh;
+
+import jakarta.persistence.*;
+
+import java.util.List;
+
+@Entity
+public class Course {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String title;
+    private Integer credits;
+
+    @ManyToMany
+    private List<Tag> tags;
+
+    @ManyToMany(mappedBy = "courses")
+    private List<Student> students;
+}
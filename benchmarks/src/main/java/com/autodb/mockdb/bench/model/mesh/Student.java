@@ -0,0 +1,21 @@
+package com.autodb.mockdb.bench.model.mesh;
+
+import jakarta.persistence.*;
+
+import java.util.List;
+
+/** Wide ManyToMany mesh: students, courses and tags all linked to each other. */
+@Entity
+public class Student {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+    private String email;
+
+    @ManyToMany
+    private List<Course> courses;
+
+    @ManyToMany
+    private List<Tag> interests;
+}
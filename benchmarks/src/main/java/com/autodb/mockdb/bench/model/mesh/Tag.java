@@ -0,0 +1,11 @@
+package com.autodb.mockdb.bench.model.mesh;
+
+import jakarta.persistence.*;
+
+@Entity
+public class Tag {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+}
@@ -0,0 +1,24 @@
+package com.autodb.mockdb.bench.model.star;
+
+import jakarta.persistence.*;
+
+import java.util.List;
+
+/** Star: one parent referenced by several independent child entities. */
+@Entity
+public class Hub {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+    private String description;
+
+    @OneToMany(mappedBy = "hub")
+    private List<SpokeA> spokeAs;
+
+    @OneToMany(mappedBy = "hub")
+    private List<SpokeB> spokeBs;
+
+    @OneToMany(mappedBy = "hub")
+    private List<SpokeC> spokeCs;
+}
@@ -0,0 +1,18 @@
+package com.autodb.mockdb.bench.model.star;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+@Entity
+public class SpokeA {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+    private Integer quantity;
+    private LocalDate createdOn;
+
+    @ManyToOne
+    private Hub hub;
+}
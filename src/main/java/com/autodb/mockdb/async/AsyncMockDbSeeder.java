@@ -0,0 +1,142 @@
+package com.autodb.mockdb.async;
+
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.metrics.SeedingMetrics;
+import com.autodb.mockdb.metrics.SeedingReport;
+import com.autodb.mockdb.provider.ValueProvider;
+import com.autodb.mockdb.seeder.SeedingListener;
+import com.autodb.mockdb.seeder.implementation.MockDbSeeder;
+import com.autodb.mockdb.seeder.implementation.MultiUnitMockDbSeeder;
+import com.autodb.mockdb.test.TemplateDatabase;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * `mockdb.mode=async`: seeds on a background thread once the application is ready, so health checks do not wait
+ * for it. The run is always chunked, so every entity is committed as soon as its rows are written; progress is
+ * published as {@link SeedingProgressEvent}s and tracked in {@link SeedingStatus}.
+ */
+public class AsyncMockDbSeeder implements ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+
+    private final EntityManager em;
+    private final MockDbProperties props;
+    private final ValueProvider provider;
+    private final PlatformTransactionManager txMgr;
+    private final SeedingMetrics metrics;
+    private final SeedingStatus status;
+    private final ApplicationEventPublisher publisher;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private TemplateDatabase template;
+    private Supplier<List<MultiUnitMockDbSeeder.Unit>> units = () -> null;
+    private final ExecutorService executor = backgroundExecutor();
+
+    public AsyncMockDbSeeder(EntityManager em, MockDbProperties props, ValueProvider provider,
+                             PlatformTransactionManager txMgr, SeedingMetrics metrics, SeedingStatus status,
+                             ApplicationEventPublisher publisher) {
+        this.em = em;
+        this.props = props;
+        this.provider = provider;
+        this.txMgr = txMgr;
+        this.metrics = metrics;
+        this.status = status;
+        this.publisher = publisher;
+    }
+
+    /** Restore from and save to this template, see {@link MockDbSeeder#setTemplate}. */
+    public void setTemplate(TemplateDatabase template) {
+        this.template = template;
+    }
+
+    /** The persistence units to seed side by side, or null from the supplier for a single one. Resolved when seeding starts. */
+    public void setUnits(Supplier<List<MultiUnitMockDbSeeder.Unit>> units) {
+        this.units = units;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        // child contexts publish their own ready event
+        if (!props.isEnabled() || !started.compareAndSet(false, true)) return;
+        executor.execute(this::seed);
+    }
+
+    private void seed() {
+        List<MultiUnitMockDbSeeder.Unit> all = units.get();
+        if (all != null) {
+            MultiUnitMockDbSeeder seeder = new MultiUnitMockDbSeeder(all);
+            seeder.setListener(status.andThen(events()));
+            try {
+                seeder.seedAll();
+            } catch (RuntimeException | Error e) {
+                System.err.println("[mockdb] background seeding failed: " + e);
+            }
+            return;
+        }
+        MockDbSeeder seeder = new MockDbSeeder(em, props, provider, new TransactionTemplate(txMgr), metrics);
+        seeder.setListener(status.andThen(events()));
+        seeder.setTemplate(template);
+        try {
+            seeder.seedAll();
+            seeder.saveTemplate();
+        } catch (Exception | Error e) {
+            // already reported to the status and as a FAILED event; the application keeps running
+            System.err.println("[mockdb] background seeding failed: " + e);
+        }
+    }
+
+    private SeedingListener events() {
+        return new SeedingListener() {
+            public void started() {
+                publish(SeedingProgressEvent.Phase.STARTED, null, 0, null, null);
+            }
+
+            public void entitySeeded(Class<?> type, int rows) {
+                publish(SeedingProgressEvent.Phase.ENTITY_SEEDED, type, rows, null, null);
+            }
+
+            public void finished(SeedingReport report) {
+                publish(SeedingProgressEvent.Phase.FINISHED, null, 0, report, null);
+            }
+
+            public void failed(Throwable error) {
+                publish(SeedingProgressEvent.Phase.FAILED, null, 0, null, error);
+            }
+        };
+    }
+
+    private void publish(SeedingProgressEvent.Phase phase, Class<?> type, int rows, SeedingReport report, Throwable error) {
+        try {
+            publisher.publishEvent(new SeedingProgressEvent(this, phase, type, rows, report, error));
+        } catch (RuntimeException e) {
+            System.err.println("[mockdb] seeding progress listener failed: " + e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /** A virtual thread per task on JDK 21+, otherwise one daemon platform thread. */
+    private static ExecutorService backgroundExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "mockdb-async");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.autodb.mockdb.async;
+
+import com.autodb.mockdb.metrics.SeedingReport;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published as a seeding run progresses. ENTITY_SEEDED carries the entity type and its row count, FINISHED the
+ * report, FAILED the error. Listeners run on the seeding thread, so keep them short.
+ */
+public class SeedingProgressEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Phase { STARTED, ENTITY_SEEDED, FINISHED, FAILED }
+
+    private final Phase phase;
+    // events are handed to listeners in this JVM, never serialized with their payload
+    private final transient Class<?> entityType;
+    private final int rows;
+    private final transient SeedingReport report;
+    private final transient Throwable error;
+
+    SeedingProgressEvent(Object source, Phase phase, Class<?> entityType, int rows, SeedingReport report, Throwable error) {
+        super(source);
+        this.phase = phase;
+        this.entityType = entityType;
+        this.rows = rows;
+        this.report = report;
+        this.error = error;
+    }
+
+    public Phase getPhase() { return phase; }
+
+    public Class<?> getEntityType() { return entityType; }
+
+    public int getRows() { return rows; }
+
+    public SeedingReport getReport() { return report; }
+
+    public Throwable getError() { return error; }
+}
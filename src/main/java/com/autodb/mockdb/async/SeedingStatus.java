@@ -0,0 +1,109 @@
+package com.autodb.mockdb.async;
+
+import com.autodb.mockdb.metrics.SeedingReport;
+import com.autodb.mockdb.seeder.SeedingListener;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Where the current seeding run stands. Inject it to check {@link #getState()} or to wait until the rows of a
+ * particular entity are in, e.g. {@code status.awaitSeeded(Order.class, Duration.ofSeconds(30))}.
+ */
+public class SeedingStatus implements SeedingListener {
+
+    public enum State { IDLE, SEEDING, READY, FAILED }
+
+    private volatile State state = State.IDLE;
+    private volatile Throwable error;
+    private final Map<Class<?>, CompletableFuture<Integer>> entities = new ConcurrentHashMap<>();
+    private final Set<Class<?>> seeded = Collections.synchronizedSet(new LinkedHashSet<>());
+    private final CompletableFuture<SeedingReport> finished = new CompletableFuture<>();
+
+    public State getState() {
+        return state;
+    }
+
+    /** The failure that ended the run, when the state is FAILED. */
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSeeded(Class<?> type) {
+        return seeded.contains(type);
+    }
+
+    /** Entities whose rows are written, in the order they finished. */
+    public Set<Class<?>> getSeededEntities() {
+        synchronized (seeded) {
+            return Set.copyOf(seeded);
+        }
+    }
+
+    /**
+     * Completes with the row count once `type` is written. Completes exceptionally if the run fails or ends
+     * without seeding `type`.
+     */
+    public CompletableFuture<Integer> whenSeeded(Class<?> type) {
+        CompletableFuture<Integer> f = entities.computeIfAbsent(type, k -> new CompletableFuture<>());
+        // the run may have ended between the caller's check and this registration
+        if (state == State.READY && !f.isDone()) f.completeExceptionally(new IllegalStateException(type.getName() + " was not seeded"));
+        if (state == State.FAILED) f.completeExceptionally(error);
+        return f;
+    }
+
+    /** Completes with the run's report after the last stage. */
+    public CompletableFuture<SeedingReport> whenFinished() {
+        return finished;
+    }
+
+    public int awaitSeeded(Class<?> type, Duration timeout) throws InterruptedException, TimeoutException {
+        return await(whenSeeded(type), timeout);
+    }
+
+    public SeedingReport awaitFinished(Duration timeout) throws InterruptedException, TimeoutException {
+        return await(finished, timeout);
+    }
+
+    @Override
+    public void started() {
+        state = State.SEEDING;
+    }
+
+    @Override
+    public void entitySeeded(Class<?> type, int rows) {
+        seeded.add(type);
+        entities.computeIfAbsent(type, k -> new CompletableFuture<>()).complete(rows);
+    }
+
+    @Override
+    public void finished(SeedingReport report) {
+        state = State.READY;
+        entities.forEach((type, f) -> f.completeExceptionally(new IllegalStateException(type.getName() + " was not seeded")));
+        finished.complete(report);
+    }
+
+    @Override
+    public void failed(Throwable error) {
+        this.error = error;
+        state = State.FAILED;
+        entities.values().forEach(f -> f.completeExceptionally(error));
+        finished.completeExceptionally(error);
+    }
+
+    private static <T> T await(CompletableFuture<T> f, Duration timeout) throws InterruptedException, TimeoutException {
+        try {
+            return f.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("[mockdb] seeding did not complete", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.autodb.mockdb.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Volume and relationship shape for one entity, bound from {@code mockdb.entities.<Entity>.*}; the key is the
+ * simple class name or, in brackets, the fully qualified one.
+ */
+public class EntitySettings {
+
+    private int count = 0;
+    private double ratio = 0;
+    private String per;
+    private Map<String, FanOut> relationships = new HashMap<>();
+    private Map<String, ReferenceDistribution> references = new HashMap<>();
+    private Double rate;
+
+    /** Exact row count; wins over `ratio`. */
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+
+    /** Rows per row of the `per` entity, e.g. ratio=10 per=Product for ten reviews per product. */
+    public double getRatio() { return ratio; }
+    public void setRatio(double ratio) { this.ratio = ratio; }
+
+    public String getPer() { return per; }
+    public void setPer(String per) { this.per = per; }
+
+    /**
+     * Fan-out per OneToMany or ManyToMany field of this entity, keyed by field name. On a OneToMany it decides how
+     * many children each row gets and with that the child entity's row count.
+     */
+    public Map<String, FanOut> getRelationships() { return relationships; }
+    public void setRelationships(Map<String, FanOut> relationships) { this.relationships = relationships; }
+
+    /** Target distribution per ManyToOne/OneToOne field of this entity, keyed by field name. */
+    public Map<String, ReferenceDistribution> getReferences() { return references; }
+    public void setReferences(Map<String, ReferenceDistribution> references) { this.references = references; }
+
+    /** Rows per second in load mode, overriding `mockdb.load.rate`; 0 leaves the entity out of the load. */
+    public Double getRate() { return rate; }
+    public void setRate(Double rate) { this.rate = rate; }
+}
@@ -0,0 +1,40 @@
+package com.autodb.mockdb.config;
+
+import java.util.random.RandomGenerator;
+
+/** How many links a single row gets on a to-many relationship. */
+public class FanOut {
+
+    /** UNIFORM draws evenly in [min, max], FIXED always uses max, GEOMETRIC favours min with a long tail up to max. */
+    public enum Distribution { UNIFORM, FIXED, GEOMETRIC }
+
+    private int min = 1;
+    private int max = 5;
+    private Distribution distribution = Distribution.UNIFORM;
+
+    /** Draw a link count, never more than the `available` candidates. */
+    public int sample(RandomGenerator rnd, int available) {
+        int lo = Math.max(0, Math.min(min, max));
+        int hi = Math.max(lo, max);
+        int n = switch (distribution) {
+            case FIXED -> hi;
+            case UNIFORM -> lo + rnd.nextInt(hi - lo + 1);
+            case GEOMETRIC -> {
+                // mean sits halfway between min and max
+                double p = 1.0 / (1.0 + (hi - lo) / 2.0);
+                int extra = p >= 1.0 ? 0 : (int) (Math.log(1.0 - rnd.nextDouble()) / Math.log(1.0 - p));
+                yield Math.min(hi, lo + extra);
+            }
+        };
+        return Math.min(n, available);
+    }
+
+    public int getMin() { return min; }
+    public void setMin(int min) { this.min = min; }
+
+    public int getMax() { return max; }
+    public void setMax(int max) { this.max = max; }
+
+    public Distribution getDistribution() { return distribution; }
+    public void setDistribution(Distribution distribution) { this.distribution = distribution; }
+}
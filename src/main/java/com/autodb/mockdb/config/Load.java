@@ -0,0 +1,29 @@
+package com.autodb.mockdb.config;
+
+/**
+ * Continuous write load, bound from {@code mockdb.load.*}: once started through {@code LoadGenerator}, new rows
+ * keep being inserted at a target rate per entity.
+ */
+public class Load {
+
+    private boolean enabled = false;
+    private double rate = 100;
+    private int writers = 4;
+    private int batchSize = 0;
+
+    /** Registers the LoadGenerator bean; it still waits for start(). */
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    /** Rows per second for every entity without a `rate` of its own under `mockdb.entities`. */
+    public double getRate() { return rate; }
+    public void setRate(double rate) { this.rate = rate; }
+
+    /** Threads inserting concurrently, each with its own transaction and connection; keep it below the pool size. */
+    public int getWriters() { return writers; }
+    public void setWriters(int writers) { this.writers = writers; }
+
+    /** Most rows per INSERT transaction; 0 uses `mockdb.batch-size`. Low rates send smaller batches more often. */
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+}
@@ -1,33 +1,57 @@
 package com.autodb.mockdb.config;
 
+import com.autodb.mockdb.async.AsyncMockDbSeeder;
+import com.autodb.mockdb.async.SeedingStatus;
+import com.autodb.mockdb.load.LoadGenerator;
+import com.autodb.mockdb.metrics.MicrometerSeedingMetrics;
+import com.autodb.mockdb.metrics.SeedingMetrics;
 import com.autodb.mockdb.provider.FakerValueProvider;
 import com.autodb.mockdb.provider.RandomValueProvider;
 import com.autodb.mockdb.provider.ValueProvider;
-import com.autodb.mockdb.seeder.Seeder;
 import com.autodb.mockdb.seeder.implementation.MockDbSeeder;
+import com.autodb.mockdb.seeder.implementation.MultiUnitMockDbSeeder;
+import com.autodb.mockdb.test.TemplateDatabase;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
+import java.nio.file.Path;
+
 @AutoConfiguration
 @EnableConfigurationProperties(MockDbProperties.class)
 public class MockDbAutoConfiguration {
 
     @Bean
     @ConditionalOnProperty(prefix = "mockdb", name = "use-faker", havingValue = "true")
-    public ValueProvider fakerValueProvider() {
-        return new FakerValueProvider();
+    public ValueProvider fakerValueProvider(MockDbProperties props) {
+        return new FakerValueProvider(props.resolveSeed(), props.getFakerPoolSize());
     }
 
     @Bean
     @ConditionalOnProperty(prefix = "mockdb", name = "use-faker", havingValue = "false", matchIfMissing = true)
-    public ValueProvider randomValueProvider() {
-        return new RandomValueProvider();
+    public ValueProvider randomValueProvider(MockDbProperties props) {
+        return new RandomValueProvider(props.resolveSeed());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SeedingStatus seedingStatus() {
+        return new SeedingStatus();
     }
 
     @Bean
@@ -35,11 +59,36 @@ public class MockDbAutoConfiguration {
     public ApplicationRunner mockDbRunner(EntityManager entityManager,
                                           MockDbProperties props,
                                           ValueProvider provider,
-                                          PlatformTransactionManager txMgr) {
+                                          PlatformTransactionManager txMgr,
+                                          SeedingMetrics metrics,
+                                          SeedingStatus seedingStatus,
+                                          ObjectProvider<TemplateDatabase> template,
+                                          ListableBeanFactory beans,
+                                          Environment environment) {
         return args -> {
+            // AsyncMockDbSeeder takes over after ApplicationReadyEvent
+            if (props.getMode() == MockDbProperties.Mode.ASYNC) return;
+            if (PersistenceUnits.several(beans)) {
+                // every unit on its own thread and connections; templates only cover a single DataSource
+                MultiUnitMockDbSeeder seeder = new MultiUnitMockDbSeeder(PersistenceUnits.discover(beans, environment, props, provider, metrics));
+                seeder.setListener(seedingStatus);
+                seeder.seedAll();
+                return;
+            }
             TransactionTemplate tx = new TransactionTemplate(txMgr);
+            if (props.isChunked()) {
+                // every chunk commits on its own instead of one transaction around the whole run
+                MockDbSeeder seeder = new MockDbSeeder(entityManager, props, provider, tx, metrics);
+                seeder.setListener(seedingStatus);
+                seeder.setTemplate(template.getIfAvailable());
+                seeder.seedAll();
+                seeder.saveTemplate();
+                return;
+            }
+            MockDbSeeder seeder = new MockDbSeeder(entityManager, props, provider, null, metrics);
+            seeder.setListener(seedingStatus);
+            seeder.setTemplate(template.getIfAvailable());
             tx.execute(status -> {
-                Seeder seeder = new MockDbSeeder(entityManager, props, provider);
                 try {
                     seeder.seedAll();
                 } catch (IllegalAccessException e) {
@@ -47,6 +96,69 @@ public class MockDbAutoConfiguration {
                 }
                 return null;
             });
+            // the dump is taken from another connection, so only after the commit
+            seeder.saveTemplate();
         };
     }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "mockdb.template", name = "enabled", havingValue = "true")
+    public TemplateDatabase templateDatabase(DataSource dataSource, MockDbProperties props) {
+        return new TemplateDatabase(dataSource, Path.of(props.getTemplate().getDirectory()));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "mockdb", name = "mode", havingValue = "async")
+    public AsyncMockDbSeeder asyncMockDbSeeder(EntityManager entityManager,
+                                               MockDbProperties props,
+                                               ValueProvider provider,
+                                               PlatformTransactionManager txMgr,
+                                               SeedingMetrics metrics,
+                                               SeedingStatus seedingStatus,
+                                               ApplicationEventPublisher publisher,
+                                               ObjectProvider<TemplateDatabase> template,
+                                               ListableBeanFactory beans,
+                                               Environment environment) {
+        AsyncMockDbSeeder seeder = new AsyncMockDbSeeder(entityManager, props, provider, txMgr, metrics, seedingStatus, publisher);
+        seeder.setTemplate(template.getIfAvailable());
+        seeder.setUnits(() -> PersistenceUnits.several(beans)
+                ? PersistenceUnits.discover(beans, environment, props, provider, metrics)
+                : null);
+        return seeder;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "mockdb.load", name = "enabled", havingValue = "true")
+    public LoadGenerator loadGenerator(EntityManager entityManager,
+                                       MockDbProperties props,
+                                       ValueProvider provider,
+                                       PlatformTransactionManager txMgr,
+                                       SeedingMetrics metrics) {
+        return new LoadGenerator(entityManager, props, provider, txMgr, metrics);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class MicrometerMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public SeedingMetrics seedingMetrics(ObjectProvider<MeterRegistry> registry) {
+            MeterRegistry r = registry.getIfAvailable();
+            return r == null ? new SeedingMetrics() : new MicrometerSeedingMetrics(r);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnMissingClass("io.micrometer.core.instrument.MeterRegistry")
+    static class PlainMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public SeedingMetrics seedingMetrics() {
+            return new SeedingMetrics();
+        }
+    }
 }
@@ -2,16 +2,47 @@ package com.autodb.mockdb.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
 @ConfigurationProperties(prefix = "mockdb")
 public class MockDbProperties {
 
     private boolean enabled = true;
     private SeedLevel level = SeedLevel.LOW;
 //    private boolean useFaker = false;
+    private WriteEngine writeEngine = WriteEngine.JPA;
+    private int batchSize = 500;
+    private boolean reserveIds = false;
+    private int idBlockSize = 10_000;
+    private int count = 0;
+    private boolean streaming = false;
+    private int chunkSize = 1000;
+    private int parallelism = 1;
+    private FanOut manyToMany = new FanOut();
+    private Map<String, EntitySettings> entities = new HashMap<>();
+    private ReferenceDistribution references = new ReferenceDistribution();
+    private Long seed;
+    private Long drawnSeed;
+    private Snapshot snapshot = new Snapshot();
+    private Template template = new Template();
+    private Mode mode = Mode.BLOCKING;
+    private boolean incremental = false;
+    private int maxFailedRows = 1000;
+    private int fakerPoolSize = 0;
+    private Load load = new Load();
 
     public enum SeedLevel { LOW, MID, HIGH }
 
+    /** BLOCKING seeds in an ApplicationRunner before the app is ready; ASYNC seeds in the background after ApplicationReadyEvent. */
+    public enum Mode { BLOCKING, ASYNC }
+
+    /** JPA persists one entity at a time; JDBC_BATCH writes multi-row INSERTs straight to the connection. */
+    public enum WriteEngine { JPA, JDBC_BATCH }
+
     public int resolveCount() {
+        if (count > 0) return count;
         return switch (level) {
             case LOW -> 100;
             case MID -> 500;
@@ -26,6 +57,123 @@ public class MockDbProperties {
     public SeedLevel getLevel() { return level; }
     public void setLevel(SeedLevel level) { this.level = level; }
 
+    public WriteEngine getWriteEngine() { return writeEngine; }
+    public void setWriteEngine(WriteEngine writeEngine) { this.writeEngine = writeEngine; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    /**
+     * With the JDBC_BATCH engine, reserve IDENTITY keys in blocks above MAX(id) and write them with the rows instead
+     * of reading generated keys back. Used on MySQL, MariaDB, PostgreSQL and HSQLDB.
+     */
+    public boolean isReserveIds() { return reserveIds; }
+    public void setReserveIds(boolean reserveIds) { this.reserveIds = reserveIds; }
+
+    /** Keys per reservation; a larger block means fewer MAX(id) queries and larger gaps when a run stops early. */
+    public int getIdBlockSize() { return idBlockSize; }
+    public void setIdBlockSize(int idBlockSize) { this.idBlockSize = idBlockSize; }
+
+    /** Explicit rows per entity; overrides `level` when positive. */
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+
+    public boolean isStreaming() { return streaming; }
+    public void setStreaming(boolean streaming) { this.streaming = streaming; }
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    /** Worker threads for entity creation; above 1 it implies chunked commits. Keep it below the connection pool size. */
+    public int getParallelism() { return parallelism; }
+    public void setParallelism(int parallelism) { this.parallelism = parallelism; }
+
+    /** Links per owning row on @ManyToMany relationships that have no fan-out of their own under `entities`. */
+    public FanOut getManyToMany() { return manyToMany; }
+    public void setManyToMany(FanOut manyToMany) { this.manyToMany = manyToMany; }
+
+    /** Per-entity counts, ratios and relationship fan-outs; entities not listed use `count` or `level`. */
+    public Map<String, EntitySettings> getEntities() { return entities; }
+    public void setEntities(Map<String, EntitySettings> entities) { this.entities = entities; }
+
+    /** Settings for `type` by simple or fully qualified class name, or null. */
+    public EntitySettings entitySettings(Class<?> type) {
+        EntitySettings s = entities.get(type.getSimpleName());
+        return s != null ? s : entities.get(type.getName());
+    }
+
+    /** Fan-out configured for `field` of `type`, or null when it only has the defaults. */
+    public FanOut relationshipFanOut(Class<?> type, String field) {
+        EntitySettings s = entitySettings(type);
+        return s == null ? null : s.getRelationships().get(field);
+    }
+
+    /** Default target distribution for ManyToOne/OneToOne references. */
+    public ReferenceDistribution getReferences() { return references; }
+    public void setReferences(ReferenceDistribution references) { this.references = references; }
+
+    /** Distribution for `field` of `type`: its own under `entities`, otherwise the default. */
+    public ReferenceDistribution referenceDistribution(Class<?> type, String field) {
+        EntitySettings s = entitySettings(type);
+        ReferenceDistribution own = s == null ? null : s.getReferences().get(field);
+        return own != null ? own : references;
+    }
+
+    /** Fixed seed for reproducible datasets; unset means a fresh one per run (see resolveSeed). Stays null when unset. */
+    public Long getSeed() { return seed; }
+    public void setSeed(Long seed) { this.seed = seed; }
+
+    /** The configured seed, or one drawn once and kept so every component of this run agrees on it. */
+    public synchronized long resolveSeed() {
+        if (seed != null) return seed;
+        if (drawnSeed == null) drawnSeed = new SplittableRandom().nextLong();
+        return drawnSeed;
+    }
+
+    /** Without a configured seed, use the one `other` runs with instead of drawing a new one. */
+    synchronized void shareSeed(MockDbProperties other) {
+        drawnSeed = other.resolveSeed();
+    }
+
+    public Snapshot getSnapshot() { return snapshot; }
+    public void setSnapshot(Snapshot snapshot) { this.snapshot = snapshot; }
+
+    public Template getTemplate() { return template; }
+    public void setTemplate(Template template) { this.template = template; }
+
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode; }
+
+    public Load getLoad() { return load; }
+    public void setLoad(Load load) { this.load = load; }
+
+    /** Rows per second `type` gets in load mode: its own `rate` under `entities`, otherwise `load.rate`. */
+    public double loadRate(Class<?> type) {
+        EntitySettings s = entitySettings(type);
+        return s != null && s.getRate() != null ? s.getRate() : load.getRate();
+    }
+
+    /** Entries per Faker dictionary; above 0, Faker strings are drawn from pre-generated dictionaries instead of per row. */
+    public int getFakerPoolSize() { return fakerPoolSize; }
+    public void setFakerPoolSize(int fakerPoolSize) { this.fakerPoolSize = fakerPoolSize; }
+
+    /**
+     * Rows a chunked run may skip after isolating them from a failed chunk before it gives up; 0 fails on the
+     * first error, negative never gives up.
+     */
+    public int getMaxFailedRows() { return maxFailedRows; }
+    public void setMaxFailedRows(int maxFailedRows) { this.maxFailedRows = maxFailedRows; }
+
+    /** Top up to the configured counts: rows already in the tables count towards them and serve as reference targets. */
+    public boolean isIncremental() { return incremental; }
+    public void setIncremental(boolean incremental) { this.incremental = incremental; }
+
+    /**
+     * Async runs always commit chunk by chunk so finished entities are visible while the rest is still seeding.
+     * Incremental runs need the key pools of the chunked path to hold the existing rows.
+     */
+    public boolean isChunked() { return streaming || parallelism > 1 || mode == Mode.ASYNC || incremental; }
+
 //    public boolean isUseFaker() { return useFaker; }
 //    public void setUseFaker(boolean useFaker) { this.useFaker = useFaker; }
 }
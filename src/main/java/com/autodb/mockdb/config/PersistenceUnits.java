@@ -0,0 +1,78 @@
+package com.autodb.mockdb.config;
+
+import com.autodb.mockdb.metrics.SeedingMetrics;
+import com.autodb.mockdb.provider.FakerValueProvider;
+import com.autodb.mockdb.provider.RandomValueProvider;
+import com.autodb.mockdb.provider.ValueProvider;
+import com.autodb.mockdb.seeder.implementation.MultiUnitMockDbSeeder;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * Every EntityManagerFactory in the context as a unit to seed, named after its bean. A unit's settings are
+ * `mockdb.*` with `mockdb.units.<bean name>.*` bound on top, e.g. `mockdb.units.reportingEntityManagerFactory.count=50`.
+ */
+final class PersistenceUnits {
+
+    private PersistenceUnits() {}
+
+    /** More than one EntityManagerFactory, so seeding goes through {@link MultiUnitMockDbSeeder}. */
+    static boolean several(ListableBeanFactory beans) {
+        return beans.getBeanNamesForType(EntityManagerFactory.class).length > 1;
+    }
+
+    static List<MultiUnitMockDbSeeder.Unit> discover(ListableBeanFactory beans, Environment environment,
+                                                     MockDbProperties defaults, ValueProvider provider,
+                                                     SeedingMetrics metrics) {
+        Binder binder = Binder.get(environment);
+        Collection<JpaTransactionManager> managers = beans.getBeansOfType(JpaTransactionManager.class).values();
+        List<MultiUnitMockDbSeeder.Unit> units = new ArrayList<>();
+        new TreeMap<>(beans.getBeansOfType(EntityManagerFactory.class)).forEach((name, emf) -> {
+            MockDbProperties props = binder.bind("mockdb", MockDbProperties.class).orElseGet(MockDbProperties::new);
+            // units share the run's seed unless they set their own
+            props.shareSeed(defaults);
+            binder.bind(unitPrefix(name), Bindable.ofInstance(props));
+            if (!props.isEnabled()) {
+                System.out.println("[mockdb] persistence unit " + name + " is not seeded (mockdb.units." + name + ".enabled=false)");
+                return;
+            }
+            JpaTransactionManager txMgr = managers.stream()
+                    .filter(m -> m.getEntityManagerFactory() == emf)
+                    .findFirst()
+                    .orElseGet(() -> new JpaTransactionManager(emf));
+            units.add(new MultiUnitMockDbSeeder.Unit(name, SharedEntityManagerCreator.createSharedEntityManager(emf), props,
+                    providerFor(props, defaults, provider), new TransactionTemplate(txMgr), metrics.forUnit(name)));
+        });
+        return units;
+    }
+
+    /**
+     * Where the settings of unit `name` are bound. Property names are lower-case, so a camelCase bean name is read in
+     * its kebab-case form, which relaxed binding also matches for `units.reportingEntityManagerFactory.*`.
+     */
+    private static String unitPrefix(String name) {
+        String kebab = "mockdb.units." + name.replaceAll("([a-z0-9])([A-Z])", "$1-$2").toLowerCase(Locale.ROOT);
+        return ConfigurationPropertyName.isValid(kebab) ? kebab : "mockdb.units[" + name + "]";
+    }
+
+    /** The built-in providers are rebuilt when a unit has its own seed or Faker pool; custom ones are shared. */
+    private static ValueProvider providerFor(MockDbProperties unit, MockDbProperties defaults, ValueProvider provider) {
+        if (unit.resolveSeed() == defaults.resolveSeed() && unit.getFakerPoolSize() == defaults.getFakerPoolSize()) return provider;
+        if (provider instanceof FakerValueProvider) return new FakerValueProvider(unit.resolveSeed(), unit.getFakerPoolSize());
+        if (provider instanceof RandomValueProvider) return new RandomValueProvider(unit.resolveSeed());
+        return provider;
+    }
+}
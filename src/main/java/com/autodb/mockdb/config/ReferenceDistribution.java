@@ -0,0 +1,37 @@
+package com.autodb.mockdb.config;
+
+/** How a to-one reference spreads over the rows of its target entity. */
+public class ReferenceDistribution {
+
+    /**
+     * UNIFORM picks every target equally; ZIPF weights the k-th most popular target by 1/k^exponent;
+     * HOT_SET sends `hot-share` of the picks to a `hot-fraction` of the targets (the Pareto 80/20 shape).
+     */
+    public enum Kind { UNIFORM, ZIPF, HOT_SET }
+
+    private Kind distribution = Kind.UNIFORM;
+    private double exponent = 1.0;
+    private double hotFraction = 0.2;
+    private double hotShare = 0.8;
+
+    public Kind getDistribution() { return distribution; }
+    public void setDistribution(Kind distribution) { this.distribution = distribution; }
+
+    public double getExponent() { return exponent; }
+    public void setExponent(double exponent) { this.exponent = exponent; }
+
+    public double getHotFraction() { return hotFraction; }
+    public void setHotFraction(double hotFraction) { this.hotFraction = hotFraction; }
+
+    public double getHotShare() { return hotShare; }
+    public void setHotShare(double hotShare) { this.hotShare = hotShare; }
+
+    @Override
+    public String toString() {
+        return switch (distribution) {
+            case UNIFORM -> "uniform";
+            case ZIPF -> "zipf(" + exponent + ")";
+            case HOT_SET -> "hot-set(" + hotFraction + "," + hotShare + ")";
+        };
+    }
+}
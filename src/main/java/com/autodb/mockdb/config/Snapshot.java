@@ -0,0 +1,15 @@
+package com.autodb.mockdb.config;
+
+/** Where generated datasets are cached so later startups can reload them instead of seeding again. */
+public class Snapshot {
+
+    private boolean enabled = false;
+    private String directory = ".mockdb/snapshots";
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    /** One file per dataset, named after a hash of the entity model and the settings that shape the data. */
+    public String getDirectory() { return directory; }
+    public void setDirectory(String directory) { this.directory = directory; }
+}
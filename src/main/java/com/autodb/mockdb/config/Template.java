@@ -0,0 +1,18 @@
+package com.autodb.mockdb.config;
+
+/**
+ * Test support: the first context seeds and dumps its embedded database as a template, later contexts with the
+ * same dataset restore the dump instead of seeding.
+ */
+public class Template {
+
+    private boolean enabled = false;
+    private String directory = ".mockdb/templates";
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    /** One SQL dump per dataset and engine, named after the same hash as snapshots. */
+    public String getDirectory() { return directory; }
+    public void setDirectory(String directory) { this.directory = directory; }
+}
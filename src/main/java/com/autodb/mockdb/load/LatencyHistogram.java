@@ -0,0 +1,57 @@
+package com.autodb.mockdb.load;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latencies in microseconds, counted in log-linear buckets: eight per power of two, so a percentile is off by at
+ * most 12.5%. Recording is lock-free and the memory fixed however long the load runs.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB = 1 << SUB_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray((64 - SUB_BITS + 1) * SUB);
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long nanos) {
+        long micros = Math.max(1, nanos / 1000);
+        counts.incrementAndGet(bucket(micros));
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /** Upper bound of the bucket holding the `p`-th fraction of the values, or zero when nothing was recorded. */
+    Duration percentile(double p) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) total += counts.get(i);
+        if (total == 0) return Duration.ZERO;
+        long rank = Math.max(1, (long) Math.ceil(p * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Duration.ofNanos(Math.min(max.get(), upperBound(i) * 1000));
+        }
+        return max();
+    }
+
+    Duration max() {
+        return Duration.ofNanos(max.get());
+    }
+
+    // values below SUB get a bucket each; above, the top SUB_BITS bits after the leading one pick the sub-bucket
+    private static int bucket(long v) {
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        if (exp < SUB_BITS) return (int) v;
+        int sub = (int) ((v >>> (exp - SUB_BITS)) & (SUB - 1));
+        return (exp - SUB_BITS + 1) * SUB + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB) return bucket;
+        int exp = bucket / SUB + SUB_BITS - 1;
+        long sub = bucket % SUB;
+        return ((SUB + sub + 1) << (exp - SUB_BITS)) - 1;
+    }
+}
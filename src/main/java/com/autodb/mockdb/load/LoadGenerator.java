@@ -0,0 +1,215 @@
+package com.autodb.mockdb.load;
+
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.metrics.SeedingMetrics;
+import com.autodb.mockdb.provider.ValueProvider;
+import com.autodb.mockdb.seeder.implementation.LoadEntityCreator;
+import com.autodb.mockdb.util.Failures;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * `mockdb.load.enabled=true`: a write load that keeps inserting new rows at `mockdb.load.rate` rows per second
+ * per entity, paced by a {@link TokenBucket} each and spread over `mockdb.load.writers` threads. Writers visit the
+ * entities in dependency order and skip one whose parents have no rows yet. Nothing runs until {@link #start()};
+ * {@link #report()} can be read while the load runs and {@link #stop()} returns the final one.
+ */
+public class LoadGenerator implements DisposableBean {
+
+    // low rates send smaller batches about this often instead of one full batch every few seconds
+    private static final int BATCHES_PER_SECOND = 10;
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final EntityManager em;
+    private final MockDbProperties props;
+    private final ValueProvider provider;
+    private final PlatformTransactionManager txMgr;
+    private final SeedingMetrics metrics;
+    private Run run;
+    private volatile LoadReport last;
+
+    public LoadGenerator(EntityManager em, MockDbProperties props, ValueProvider provider,
+                         PlatformTransactionManager txMgr, SeedingMetrics metrics) {
+        this.em = em;
+        this.props = props;
+        this.provider = provider;
+        this.txMgr = txMgr;
+        this.metrics = metrics;
+    }
+
+    /** Load the existing keys and start the writers; the tables should already be seeded. */
+    public synchronized void start() {
+        if (run != null && run.running) throw new IllegalStateException("[mockdb] load generator is already running");
+        // a run a failure ended still has to be reported
+        if (run != null) stop();
+        LoadEntityCreator creator = LoadEntityCreator.create(em, props, provider, new TransactionTemplate(txMgr), metrics);
+        int batchSize = props.getLoad().getBatchSize() > 0 ? props.getLoad().getBatchSize() : Math.max(1, props.getBatchSize());
+        List<Target> targets = new ArrayList<>();
+        for (Class<?> cls : creator.prepare()) {
+            double rate = props.loadRate(cls);
+            if (rate > 0) targets.add(new Target(cls, rate, (int) Math.max(1, Math.min(batchSize, Math.round(rate / BATCHES_PER_SECOND)))));
+        }
+        if (targets.isEmpty()) {
+            System.err.println("[mockdb] load: no entity has a rate above 0, nothing to start");
+            return;
+        }
+        int writers = Math.max(1, props.getLoad().getWriters());
+        run = new Run(creator, targets, writers);
+        System.out.println("[mockdb] load started: " + targets.size() + " entities, " + writers + " writers, "
+                + Math.round(targets.stream().mapToDouble(t -> t.rate).sum()) + " rows/s in total");
+        for (Target t : targets) {
+            if (!creator.ready(t.type, run.loaded)) {
+                System.out.println("[mockdb] load: " + t.type.getSimpleName() + " waits until its parents have rows");
+            }
+        }
+    }
+
+    /** Stop the writers after their current batch and return the report of the run, or the last one if none runs. */
+    public synchronized LoadReport stop() {
+        if (run == null) return last;
+        run.halt(null);
+        run.awaitWriters();
+        last = run.report();
+        run = null;
+        System.out.println(last);
+        return last;
+    }
+
+    /** False before start, after stop, and once a failure has ended the run. */
+    public synchronized boolean isRunning() {
+        return run != null && run.running;
+    }
+
+    /** Figures of the current run so far, or of the last one. */
+    public synchronized LoadReport report() {
+        return run != null ? run.report() : last;
+    }
+
+    @Override
+    public void destroy() {
+        stop();
+    }
+
+    /** One entity under load: its pacing and what its batches achieved. */
+    private static final class Target {
+
+        final Class<?> type;
+        final double rate;
+        final TokenBucket bucket;
+        final LongAdder rows = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder batches = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        Target(Class<?> type, double rate, int batch) {
+            this.type = type;
+            this.rate = rate;
+            this.bucket = new TokenBucket(rate, batch);
+        }
+
+        LoadReport.EntityLoad report() {
+            return new LoadReport.EntityLoad(rate, rows.sum(), failed.sum(), batches.sum(),
+                    latency.percentile(0.50), latency.percentile(0.95), latency.percentile(0.99), latency.max());
+        }
+    }
+
+    private static final class Run {
+
+        final LoadEntityCreator creator;
+        final List<Target> targets;
+        final Set<Class<?>> loaded = new HashSet<>();
+        final ExecutorService executor;
+        final long startNanos = System.nanoTime();
+        volatile boolean running = true;
+        volatile long endNanos;
+        volatile String failure;
+
+        Run(LoadEntityCreator creator, List<Target> targets, int writers) {
+            this.creator = creator;
+            this.targets = targets;
+            targets.forEach(t -> loaded.add(t.type));
+            this.executor = Executors.newFixedThreadPool(writers, writerFactory());
+            for (int i = 0; i < writers; i++) executor.execute(this::write);
+        }
+
+        // every sweep offers each entity, parents first, one batch if its bucket has one
+        private void write() {
+            while (running) {
+                long idle = MAX_IDLE_NANOS;
+                boolean wrote = false;
+                for (Target t : targets) {
+                    if (!running) return;
+                    if (!creator.ready(t.type, loaded)) continue;
+                    int rows = t.bucket.take();
+                    if (rows == 0) {
+                        idle = Math.min(idle, t.bucket.nanosUntilNext());
+                        continue;
+                    }
+                    long start = System.nanoTime();
+                    int committed;
+                    try {
+                        committed = creator.write(t.type, rows);
+                    } catch (RuntimeException e) {
+                        halt(t.type.getSimpleName() + ": " + Failures.describe(e));
+                        return;
+                    }
+                    t.latency.record(System.nanoTime() - start);
+                    t.batches.increment();
+                    t.rows.add(committed);
+                    t.failed.add(rows - committed);
+                    wrote = true;
+                }
+                if (!wrote) LockSupport.parkNanos(Math.max(idle, 100_000));
+            }
+        }
+
+        synchronized void halt(String reason) {
+            if (!running) return;
+            running = false;
+            endNanos = System.nanoTime();
+            if (reason != null) {
+                failure = reason;
+                System.err.println("[mockdb] load stopped: " + reason);
+            }
+            executor.shutdown();
+        }
+
+        // a writer in the middle of a batch gets to commit it
+        void awaitWriters() {
+            try {
+                if (!executor.awaitTermination(30, TimeUnit.SECONDS)) executor.shutdownNow();
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        LoadReport report() {
+            Map<String, LoadReport.EntityLoad> entities = new LinkedHashMap<>();
+            for (Target t : targets) entities.put(t.type.getSimpleName(), t.report());
+            long end = running ? System.nanoTime() : endNanos;
+            return new LoadReport(Duration.ofNanos(end - startNanos), entities, failure);
+        }
+
+        private static ThreadFactory writerFactory() {
+            AtomicInteger n = new AtomicInteger();
+            return r -> {
+                Thread t = new Thread(r, "mockdb-load-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            };
+        }
+    }
+}
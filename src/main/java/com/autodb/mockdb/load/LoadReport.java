@@ -0,0 +1,46 @@
+package com.autodb.mockdb.load;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throughput and batch latency of a load run, per entity. `failure` is the error that stopped the run early, or
+ * null while it runs and after a regular stop.
+ */
+public record LoadReport(Duration elapsed, Map<String, EntityLoad> entities, String failure) {
+
+    /** Latencies are per INSERT transaction of up to one batch, including the commit. */
+    public record EntityLoad(double targetRate, long rows, long failed, long batches,
+                             Duration p50, Duration p95, Duration p99, Duration max) {
+
+        public double achievedRate(Duration elapsed) {
+            long nanos = elapsed.toNanos();
+            return nanos == 0 ? 0 : rows * 1_000_000_000.0 / nanos;
+        }
+    }
+
+    public long rows() {
+        return entities.values().stream().mapToLong(EntityLoad::rows).sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[mockdb] load report: ").append(rows()).append(" rows in ").append(elapsed.toMillis()).append(" ms");
+        if (failure != null) sb.append(", stopped by ").append(failure);
+        entities.forEach((k, v) -> {
+            sb.append("\n  ").append(k).append(": ").append(Math.round(v.achievedRate(elapsed)))
+                    .append(" of ").append(Math.round(v.targetRate())).append(" rows/s, ").append(v.rows()).append(" rows");
+            if (v.failed() > 0) sb.append(", ").append(v.failed()).append(" failed");
+            sb.append(", ").append(v.batches()).append(" batches, latency p50 ").append(millis(v.p50()))
+                    .append(" p95 ").append(millis(v.p95())).append(" p99 ").append(millis(v.p99()))
+                    .append(" max ").append(millis(v.max())).append(" ms");
+        });
+        return sb.toString();
+    }
+
+    private static String millis(Duration d) {
+        return String.format(Locale.ROOT, "%.1f", d.toNanos() / 1_000_000.0);
+    }
+}
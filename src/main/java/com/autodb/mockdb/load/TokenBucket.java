@@ -0,0 +1,41 @@
+package com.autodb.mockdb.load;
+
+/**
+ * Paces one entity: tokens refill at `rate` per second and a batch is handed out once a whole batch is there.
+ * The bucket holds at most two batches, so time lost to slow writes is not made up later in a burst.
+ */
+final class TokenBucket {
+
+    private final double perNano;
+    private final int batch;
+    private final double capacity;
+    private double tokens;
+    private long last = System.nanoTime();
+
+    TokenBucket(double rate, int batch) {
+        this.perNano = rate / 1_000_000_000.0;
+        this.batch = batch;
+        this.capacity = 2.0 * batch;
+        this.tokens = batch;
+    }
+
+    /** A batch worth of rows, or 0 when the rate does not allow one yet. */
+    synchronized int take() {
+        refill();
+        if (tokens < batch) return 0;
+        tokens -= batch;
+        return batch;
+    }
+
+    /** Nanoseconds until {@link #take} hands out the next batch. */
+    synchronized long nanosUntilNext() {
+        refill();
+        return tokens >= batch ? 0 : (long) Math.ceil((batch - tokens) / perNano);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - last) * perNano);
+        last = now;
+    }
+}
@@ -0,0 +1,49 @@
+package com.autodb.mockdb.metrics;
+
+import com.autodb.mockdb.writer.EntityWriter;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.List;
+
+/** Times and counts the writes of another {@link EntityWriter}. */
+public class MeteredEntityWriter implements EntityWriter {
+
+    private final EntityWriter delegate;
+    private final SeedingMetrics metrics;
+
+    public MeteredEntityWriter(EntityWriter delegate, SeedingMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public List<Object> insert(Class<?> entityType, List<Object> rows) {
+        long start = System.nanoTime();
+        List<Object> written = delegate.insert(entityType, rows);
+        metrics.rowsWritten(entityType, written.size(), rows.size() - written.size(), System.nanoTime() - start);
+        return written;
+    }
+
+    @Override
+    public void updateReference(Class<?> entityType, Field field, Object row) {
+        delegate.updateReference(entityType, field, row);
+    }
+
+    @Override
+    public void link(Class<?> ownerType, Field field, Object owner, Collection<?> targets) {
+        delegate.link(ownerType, field, owner, targets);
+    }
+
+    @Override
+    public void flush() {
+        long start = System.nanoTime();
+        delegate.flush();
+        metrics.flushed(System.nanoTime() - start);
+    }
+
+    @Override
+    public void discard() {
+        delegate.discard();
+    }
+}
@@ -0,0 +1,80 @@
+package com.autodb.mockdb.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/** {@link SeedingMetrics} that also publishes every event to a Micrometer registry under `mockdb.*`. */
+public class MicrometerSeedingMetrics extends SeedingMetrics {
+
+    private final MeterRegistry registry;
+    private final Tags tags;
+    private final Set<Class<?>> gauged = ConcurrentHashMap.newKeySet();
+
+    public MicrometerSeedingMetrics(MeterRegistry registry) {
+        this(registry, Tags.empty());
+    }
+
+    private MicrometerSeedingMetrics(MeterRegistry registry, Tags tags) {
+        this.registry = registry;
+        this.tags = tags;
+    }
+
+    // every meter of a multi-unit run carries the unit, so the units do not add up under one name
+    @Override
+    public SeedingMetrics forUnit(String unit) {
+        return new MicrometerSeedingMetrics(registry, Tags.of("unit", unit));
+    }
+
+    @Override
+    public void rowsGenerated(Class<?> entity, int rows, long nanos) {
+        super.rowsGenerated(entity, rows, nanos);
+        Counter.builder("mockdb.rows.generated").tags(tags).tag("entity", entity.getSimpleName()).register(registry).increment(rows);
+        if (gauged.add(entity)) {
+            Gauge.builder("mockdb.rows.rate", this, m -> m.rowsPerSecond(entity))
+                    .tags(tags)
+                    .tag("entity", entity.getSimpleName())
+                    .baseUnit("rows/s")
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void rowsWritten(Class<?> entity, int persisted, int failed, long nanos) {
+        super.rowsWritten(entity, persisted, failed, nanos);
+        String name = entity.getSimpleName();
+        Counter.builder("mockdb.rows.persisted").tags(tags).tag("entity", name).register(registry).increment(persisted);
+        if (failed > 0) Counter.builder("mockdb.rows.failed").tags(tags).tag("entity", name).register(registry).increment(failed);
+        Timer.builder("mockdb.write").tags(tags).tag("entity", name).register(registry).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void rowFailed(Class<?> entity, String reason) {
+        super.rowFailed(entity, reason);
+        Counter.builder("mockdb.rows.failed").tags(tags).tag("entity", entity.getSimpleName()).register(registry).increment();
+    }
+
+    @Override
+    public void valuesGenerated(String provider, int values, long nanos) {
+        super.valuesGenerated(provider, values, nanos);
+        Timer.builder("mockdb.values").tags(tags).tag("provider", provider).register(registry).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void flushed(long nanos) {
+        super.flushed(nanos);
+        Timer.builder("mockdb.flush").tags(tags).register(registry).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void stageCompleted(String stage, long nanos) {
+        super.stageCompleted(stage, nanos);
+        Timer.builder("mockdb.stage").tags(tags).tag("stage", stage).register(registry).record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,131 @@
+package com.autodb.mockdb.metrics;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects counters and timings while seeding runs and turns them into a {@link SeedingReport}.
+ * Safe to feed from several seeding threads. Subclasses can forward each event to a metrics backend.
+ */
+public class SeedingMetrics {
+
+    private static final int MAX_ERRORS_PER_ENTITY = 10;
+
+    private final Map<Class<?>, EntityCounters> entities = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder[]> providers = new ConcurrentHashMap<>();
+    private final Map<String, Long> stages = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private volatile long startNanos = System.nanoTime();
+    private volatile SeedingReport lastReport;
+
+    /** A separate collector for one of several persistence units seeded side by side. */
+    public SeedingMetrics forUnit(String unit) {
+        return new SeedingMetrics();
+    }
+
+    /** Forget the previous run and restart the clock. */
+    public void start() {
+        entities.clear();
+        providers.clear();
+        stages.clear();
+        flushes.reset();
+        flushNanos.reset();
+        startNanos = System.nanoTime();
+    }
+
+    /** `rows` instances of `entity` built, spending `nanos` on it. */
+    public void rowsGenerated(Class<?> entity, int rows, long nanos) {
+        EntityCounters c = counters(entity);
+        c.generated.add(rows);
+        c.generateNanos.add(nanos);
+    }
+
+    /** One write of a batch: `persisted` rows accepted, `failed` rejected, `nanos` spent in the writer. */
+    public void rowsWritten(Class<?> entity, int persisted, int failed, long nanos) {
+        EntityCounters c = counters(entity);
+        c.persisted.add(persisted);
+        c.failed.add(failed);
+        c.writeNanos.add(nanos);
+    }
+
+    /** `rows` counted as persisted by {@link #rowsWritten} whose transaction was then rolled back. */
+    public void rowsRolledBack(Class<?> entity, int rows) {
+        counters(entity).persisted.add(-rows);
+    }
+
+    /** A row of `entity` that could not be built, or that the database refused on its own. */
+    public void rowFailed(Class<?> entity, String reason) {
+        EntityCounters c = counters(entity);
+        c.failed.increment();
+        if (c.errors.size() < MAX_ERRORS_PER_ENTITY) c.errors.add(reason);
+    }
+
+    /** Why a row already counted as failed by {@link #rowsWritten} was refused. */
+    public void failureReason(Class<?> entity, String reason) {
+        EntityCounters c = counters(entity);
+        if (c.errors.size() < MAX_ERRORS_PER_ENTITY) c.errors.add(reason);
+    }
+
+    public void valuesGenerated(String provider, int values, long nanos) {
+        LongAdder[] p = providers.computeIfAbsent(provider, k -> new LongAdder[]{new LongAdder(), new LongAdder()});
+        p[0].add(values);
+        p[1].add(nanos);
+    }
+
+    public void flushed(long nanos) {
+        flushes.increment();
+        flushNanos.add(nanos);
+    }
+
+    public void stageCompleted(String stage, long nanos) {
+        stages.merge(stage, nanos, Long::sum);
+    }
+
+    public double rowsPerSecond(Class<?> entity) {
+        EntityCounters c = entities.get(entity);
+        return c == null ? 0 : c.report().rowsPerSecond();
+    }
+
+    /** Close the run and keep its report for {@link #lastReport()}. */
+    public SeedingReport finish() {
+        Map<String, Duration> stageTimes = new LinkedHashMap<>();
+        synchronized (stages) {
+            stages.forEach((k, v) -> stageTimes.put(k, Duration.ofNanos(v)));
+        }
+        Map<String, SeedingReport.EntityReport> entityReports = new TreeMap<>();
+        entities.forEach((k, v) -> entityReports.put(k.getSimpleName(), v.report()));
+        Map<String, SeedingReport.ProviderReport> providerReports = new TreeMap<>();
+        providers.forEach((k, v) -> providerReports.put(k, new SeedingReport.ProviderReport(v[0].sum(), Duration.ofNanos(v[1].sum()))));
+
+        lastReport = new SeedingReport(Duration.ofNanos(System.nanoTime() - startNanos), stageTimes,
+                entityReports, providerReports, flushes.sum(), Duration.ofNanos(flushNanos.sum()));
+        return lastReport;
+    }
+
+    /** Report of the most recent completed run, null before the first one finishes. */
+    public SeedingReport lastReport() {
+        return lastReport;
+    }
+
+    private EntityCounters counters(Class<?> entity) {
+        return entities.computeIfAbsent(entity, k -> new EntityCounters());
+    }
+
+    private static final class EntityCounters {
+        final LongAdder generated = new LongAdder();
+        final LongAdder persisted = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder generateNanos = new LongAdder();
+        final LongAdder writeNanos = new LongAdder();
+        final Queue<String> errors = new ConcurrentLinkedQueue<>();
+
+        SeedingReport.EntityReport report() {
+            return new SeedingReport.EntityReport(generated.sum(), persisted.sum(), failed.sum(),
+                    Duration.ofNanos(generateNanos.sum()), Duration.ofNanos(writeNanos.sum()), List.copyOf(errors));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.autodb.mockdb.metrics;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Snapshot of one seeding run: time per stage, per entity and per value provider. */
+public record SeedingReport(Duration total,
+                            Map<String, Duration> stages,
+                            Map<String, EntityReport> entities,
+                            Map<String, ProviderReport> providers,
+                            long flushes,
+                            Duration flushTime) {
+
+    /** `errors` holds the first few failure messages for the entity, not all of them. */
+    public record EntityReport(long generated, long persisted, long failed,
+                               Duration generationTime, Duration writeTime, List<String> errors) {
+
+        public double rowsPerSecond() {
+            long nanos = generationTime.toNanos() + writeTime.toNanos();
+            return nanos == 0 ? 0 : persisted * 1_000_000_000.0 / nanos;
+        }
+    }
+
+    public record ProviderReport(long values, Duration time) {}
+
+    /**
+     * One report over several persistence units seeded side by side, `total` being the wall time of them all.
+     * Stages and entities are keyed `unit/name`; provider figures are summed.
+     */
+    public static SeedingReport combine(Map<String, SeedingReport> units, Duration total) {
+        Map<String, Duration> stages = new LinkedHashMap<>();
+        Map<String, EntityReport> entities = new TreeMap<>();
+        Map<String, ProviderReport> providers = new TreeMap<>();
+        long flushes = 0;
+        Duration flushTime = Duration.ZERO;
+        for (Map.Entry<String, SeedingReport> unit : units.entrySet()) {
+            SeedingReport r = unit.getValue();
+            r.stages().forEach((k, v) -> stages.put(unit.getKey() + "/" + k, v));
+            r.entities().forEach((k, v) -> entities.put(unit.getKey() + "/" + k, v));
+            r.providers().forEach((k, v) -> providers.merge(k, v,
+                    (a, b) -> new ProviderReport(a.values() + b.values(), a.time().plus(b.time()))));
+            flushes += r.flushes();
+            flushTime = flushTime.plus(r.flushTime());
+        }
+        return new SeedingReport(total, stages, entities, providers, flushes, flushTime);
+    }
+
+    public long persisted() {
+        return entities.values().stream().mapToLong(EntityReport::persisted).sum();
+    }
+
+    public long failed() {
+        return entities.values().stream().mapToLong(EntityReport::failed).sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[mockdb] seeding report: ").append(persisted()).append(" rows in ").append(total.toMillis()).append(" ms");
+        if (failed() > 0) sb.append(", ").append(failed()).append(" failed");
+        stages.forEach((k, v) -> sb.append("\n  stage ").append(k).append(": ").append(v.toMillis()).append(" ms"));
+        sb.append("\n  flush: ").append(flushes).append("x, ").append(flushTime.toMillis()).append(" ms");
+        entities.forEach((k, v) -> {
+            sb.append("\n  ").append(k).append(": ").append(v.persisted()).append(" persisted");
+            if (v.failed() > 0) sb.append(", ").append(v.failed()).append(" failed");
+            sb.append(", ").append(Math.round(v.rowsPerSecond())).append(" rows/s");
+            v.errors().forEach(e -> sb.append("\n    ! ").append(e));
+        });
+        providers.forEach((k, v) -> sb.append("\n  provider ").append(k).append(": ")
+                .append(v.values()).append(" values in ").append(v.time().toMillis()).append(" ms"));
+        return sb.toString();
+    }
+}
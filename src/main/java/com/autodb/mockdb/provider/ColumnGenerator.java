@@ -0,0 +1,61 @@
+package com.autodb.mockdb.provider;
+
+/**
+ * Values for one (entity, field) column. Resolved once by a {@link ColumnarValueProvider} and then
+ * drawn for many rows; the nested primitive variants let callers fill unboxed arrays.
+ */
+@FunctionalInterface
+public interface ColumnGenerator {
+
+    /** Value for row `index`. May return null, in which case the field keeps its default. */
+    Object next(int index);
+
+    /** Fill `column` with the values for rows firstIndex .. firstIndex + column.length - 1. */
+    default void fill(Object[] column, int firstIndex) {
+        for (int i = 0; i < column.length; i++) column[i] = next(firstIndex + i);
+    }
+
+    interface OfInt extends ColumnGenerator {
+        int nextInt(int index);
+
+        @Override
+        default Object next(int index) { return nextInt(index); }
+
+        default void fillInts(int[] column, int firstIndex) {
+            for (int i = 0; i < column.length; i++) column[i] = nextInt(firstIndex + i);
+        }
+    }
+
+    interface OfLong extends ColumnGenerator {
+        long nextLong(int index);
+
+        @Override
+        default Object next(int index) { return nextLong(index); }
+
+        default void fillLongs(long[] column, int firstIndex) {
+            for (int i = 0; i < column.length; i++) column[i] = nextLong(firstIndex + i);
+        }
+    }
+
+    interface OfDouble extends ColumnGenerator {
+        double nextDouble(int index);
+
+        @Override
+        default Object next(int index) { return nextDouble(index); }
+
+        default void fillDoubles(double[] column, int firstIndex) {
+            for (int i = 0; i < column.length; i++) column[i] = nextDouble(firstIndex + i);
+        }
+    }
+
+    interface OfBoolean extends ColumnGenerator {
+        boolean nextBoolean(int index);
+
+        @Override
+        default Object next(int index) { return nextBoolean(index); }
+
+        default void fillBooleans(boolean[] column, int firstIndex) {
+            for (int i = 0; i < column.length; i++) column[i] = nextBoolean(firstIndex + i);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.autodb.mockdb.provider;
+
+import java.lang.reflect.Field;
+
+/**
+ * A {@link ValueProvider} that works out how to generate a field once and hands back a
+ * {@link ColumnGenerator} the seeder reuses for every row of that entity.
+ */
+public interface ColumnarValueProvider extends ValueProvider {
+
+    /** Generator for `field` of `entityType`, or null when this provider has nothing for its type. */
+    ColumnGenerator generatorFor(Class<?> entityType, Field field);
+
+    /**
+     * Generator for a unique column whose values never repeat across row indexes, or null to let the seeder
+     * check the plain generator's values for duplicates instead.
+     */
+    default ColumnGenerator uniqueGeneratorFor(Class<?> entityType, Field field) {
+        return null;
+    }
+
+    @Override
+    default Object provideValue(Class<?> entityType, Field field, int index) {
+        ColumnGenerator g = generatorFor(entityType, field);
+        return g == null ? null : g.next(index);
+    }
+
+    /** `provider` itself when it is columnar, otherwise a view that calls provideValue once per row. */
+    static ColumnarValueProvider adapt(ValueProvider provider) {
+        if (provider instanceof ColumnarValueProvider columnar) return columnar;
+        return (entityType, field) -> index -> provider.provideValue(entityType, field, index);
+    }
+}
@@ -1,57 +1,158 @@
 package com.autodb.mockdb.provider;
 
+import com.autodb.mockdb.util.SeededRandom;
 import net.datafaker.Faker;
 
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.Date;
+import java.util.Map;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
-public class FakerValueProvider implements ValueProvider {
+import static com.autodb.mockdb.provider.RandomValueProvider.DAY_MILLIS;
+import static com.autodb.mockdb.provider.RandomValueProvider.EPOCH;
+import static com.autodb.mockdb.provider.RandomValueProvider.EPOCH_MILLIS;
 
-    private final Faker faker = new Faker();
-    private final Random rnd = new Random();
+public class FakerValueProvider implements ColumnarValueProvider {
 
-    public FakerValueProvider() {}
+    /** Faker is not thread-safe; each thread gets its own, reseeded from (seed, entity, field, index) before every value. */
+    private record SeededFaker(Faker faker, Random random) {}
+
+    private final long seed;
+    private final int poolSize;
+    private final Map<String, StringPool> dictionaries = new ConcurrentHashMap<>();
+    private final ThreadLocal<SeededFaker> fakers = ThreadLocal.withInitial(() -> {
+        Random random = new Random();
+        return new SeededFaker(new Faker(random), random);
+    });
+
+    public FakerValueProvider() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    public FakerValueProvider(long seed) {
+        this(seed, 0);
+    }
+
+    /**
+     * With `poolSize` above 0, each kind of string (first name, address, sentence...) is generated `poolSize` times
+     * up front and rows draw from that dictionary; names and emails combine two dictionaries for more variety.
+     */
+    public FakerValueProvider(long seed, int poolSize) {
+        this.seed = seed;
+        this.poolSize = poolSize;
+    }
 
     @Override
-    public Object provideValue(Class<?> entityType, Field field, int index) {
+    public ColumnGenerator generatorFor(Class<?> entityType, Field field) {
         Class<?> t = field.getType();
         String name = field.getName().toLowerCase();
+        long s = SeededRandom.stream(seed, entityType, field.getName());
 
         if (String.class.equals(t)) {
-            if (name.contains("email")) return faker.internet().emailAddress();
-            if (name.contains("first") && name.contains("name")) return faker.name().firstName();
-            if (name.contains("last") && name.contains("name")) return faker.name().lastName();
-            if (name.contains("name")) return faker.name().fullName();
-            if (name.contains("phone")) return faker.phoneNumber().phoneNumber();
-            if (name.contains("address")) return faker.address().fullAddress();
-            if (name.contains("company")) return faker.company().name();
-            if (name.contains("title")) return faker.book().title();
-            if (name.contains("description") || name.contains("desc")) return faker.lorem().sentence();
-            if (name.contains("category")) return faker.commerce().department();
-            if (name.contains("product")) return faker.commerce().productName();
-            return faker.lorem().word() + "-" + Math.abs(rnd.nextInt(10000));
+            if (poolSize > 0) {
+                if (name.contains("email")) {
+                    StringPool first = dictionary("firstName", f -> f.name().firstName());
+                    StringPool last = dictionary("lastName", f -> f.name().lastName());
+                    StringPool domains = dictionary("domain", f -> f.internet().domainName());
+                    return i -> {
+                        long bits = SeededRandom.at(s, i);
+                        return localPart(first.pick(bits)) + "." + localPart(last.pick(bits << 32))
+                                + "@" + domains.pick(SeededRandom.at(s, ~i));
+                    };
+                }
+                if (name.contains("name") && !(name.contains("first") || name.contains("last"))) {
+                    StringPool first = dictionary("firstName", f -> f.name().firstName());
+                    StringPool last = dictionary("lastName", f -> f.name().lastName());
+                    return i -> {
+                        long bits = SeededRandom.at(s, i);
+                        return first.pick(bits) + " " + last.pick(bits << 32);
+                    };
+                }
+            }
+            if (name.contains("email")) return text(s, "email", f -> f.internet().emailAddress());
+            if (name.contains("first") && name.contains("name")) return text(s, "firstName", f -> f.name().firstName());
+            if (name.contains("last") && name.contains("name")) return text(s, "lastName", f -> f.name().lastName());
+            if (name.contains("name")) return text(s, "fullName", f -> f.name().fullName());
+            if (name.contains("phone")) return text(s, "phone", f -> f.phoneNumber().phoneNumber());
+            if (name.contains("address")) return text(s, "address", f -> f.address().fullAddress());
+            if (name.contains("company")) return text(s, "company", f -> f.company().name());
+            if (name.contains("title")) return text(s, "title", f -> f.book().title());
+            if (name.contains("description") || name.contains("desc")) return text(s, "sentence", f -> f.lorem().sentence());
+            if (name.contains("category")) return text(s, "department", f -> f.commerce().department());
+            if (name.contains("product")) return text(s, "product", f -> f.commerce().productName());
+            ColumnGenerator word = text(s, "word", f -> f.lorem().word());
+            return i -> word.next(i) + "-" + SeededRandom.nextInt(s, i, 10000);
         }
 
-        if (Integer.class.equals(t) || int.class.equals(t)) return rnd.nextInt(1000);
-        if (Long.class.equals(t) || long.class.equals(t)) return Math.abs(rnd.nextLong() % 100000);
-        if (Double.class.equals(t) || double.class.equals(t)) return Math.round(faker.number().randomDouble(2, 1, 10000) * 100.0) / 100.0;
-        if (BigDecimal.class.equals(t)) return BigDecimal.valueOf(Math.round(faker.number().randomDouble(2, 1, 10000) * 100.0) / 100.0);
-        if (Boolean.class.equals(t) || boolean.class.equals(t)) return rnd.nextBoolean();
-        if (LocalDate.class.equals(t)) {
-            Date d = faker.date().birthday();
-            return d.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-        }
-        if (Date.class.equals(t)) {
-            return faker.date().past(3650, java.util.concurrent.TimeUnit.DAYS);
-        }
+        if (Integer.class.equals(t) || int.class.equals(t)) return (ColumnGenerator.OfInt) i -> SeededRandom.nextInt(s, i, 1000);
+        if (Long.class.equals(t) || long.class.equals(t)) return (ColumnGenerator.OfLong) i -> SeededRandom.nextInt(s, i, 100000);
+        if (Double.class.equals(t) || double.class.equals(t)) return (ColumnGenerator.OfDouble) i -> Math.round(faker(s, i).number().randomDouble(2, 1, 10000) * 100.0) / 100.0;
+        if (BigDecimal.class.equals(t)) return i -> BigDecimal.valueOf(Math.round(faker(s, i).number().randomDouble(2, 1, 10000) * 100.0) / 100.0);
+        if (Boolean.class.equals(t) || boolean.class.equals(t)) return (ColumnGenerator.OfBoolean) i -> SeededRandom.nextBoolean(s, i);
+        // same 18..65 year range as faker.date().birthday(), but anchored to EPOCH instead of today
+        if (LocalDate.class.equals(t)) return i -> EPOCH.minusYears(18).minusDays(SeededRandom.nextInt(s, i, 47 * 365));
+        if (Date.class.equals(t)) return i -> new Date(EPOCH_MILLIS - (long) (SeededRandom.nextDouble(s, i) * 3650 * DAY_MILLIS));
         if (t.isEnum()) {
             Object[] consts = t.getEnumConstants();
-            if (consts != null && consts.length > 0) return consts[rnd.nextInt(consts.length)];
+            if (consts != null && consts.length > 0) return i -> consts[SeededRandom.nextInt(s, i, consts.length)];
         }
         return null;
     }
+
+    // readable value plus a permutation of the row index, which alone keeps it unique
+    @Override
+    public ColumnGenerator uniqueGeneratorFor(Class<?> entityType, Field field) {
+        Class<?> t = field.getType();
+        long s = SeededRandom.stream(seed, entityType, field.getName());
+
+        if (String.class.equals(t)) {
+            if (field.getName().toLowerCase().contains("email")) {
+                if (poolSize > 0) {
+                    StringPool first = dictionary("firstName", f -> f.name().firstName());
+                    StringPool domains = dictionary("domain", f -> f.internet().domainName());
+                    return i -> localPart(first.pick(SeededRandom.at(s, i))) + "." + SeededRandom.permute(s, i)
+                            + "@" + domains.pick(SeededRandom.at(s, ~i));
+                }
+                return i -> {
+                    Faker f = faker(s, i);
+                    return localPart(f.name().firstName()) + "." + SeededRandom.permute(s, i) + "@" + f.internet().domainName();
+                };
+            }
+            ColumnGenerator base = generatorFor(entityType, field);
+            return i -> base.next(i) + "-" + Integer.toString(SeededRandom.permute(s, i), 36);
+        }
+        if (Integer.class.equals(t) || int.class.equals(t)) return (ColumnGenerator.OfInt) i -> SeededRandom.permute(s, i);
+        if (Long.class.equals(t) || long.class.equals(t)) return (ColumnGenerator.OfLong) i -> SeededRandom.permute(s, i);
+        return null;
+    }
+
+    /** Faker per row, or a draw from the `category` dictionary when pooling is on. */
+    private ColumnGenerator text(long stream, String category, Function<Faker, String> source) {
+        if (poolSize <= 0) return i -> source.apply(faker(stream, i));
+        StringPool pool = dictionary(category, source);
+        return i -> pool.pick(SeededRandom.at(stream, i));
+    }
+
+    /** The `category` dictionary, built once from its own seeded stream and shared by every field that uses it. */
+    private StringPool dictionary(String category, Function<Faker, String> source) {
+        return dictionaries.computeIfAbsent(category, c -> {
+            long stream = SeededRandom.stream(seed, "faker-pool:" + c);
+            return StringPool.build(poolSize, i -> source.apply(faker(stream, i)));
+        });
+    }
+
+    private static String localPart(String name) {
+        return name.toLowerCase().replaceAll("[^a-z]", "");
+    }
+
+    private Faker faker(long stream, int index) {
+        SeededFaker f = fakers.get();
+        f.random().setSeed(SeededRandom.at(stream, index));
+        return f.faker();
+    }
 }
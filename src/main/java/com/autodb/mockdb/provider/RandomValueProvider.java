@@ -1,40 +1,74 @@
 package com.autodb.mockdb.provider;
 
+import com.autodb.mockdb.util.SeededRandom;
+
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.Date;
-import java.util.Random;
+import java.util.SplittableRandom;
+
+public class RandomValueProvider implements ColumnarValueProvider {
+
+    /** Dates are drawn backwards from here rather than from today, so a seeded run does not drift with the clock. */
+    static final LocalDate EPOCH = LocalDate.of(2025, 1, 1);
+    static final long EPOCH_MILLIS = EPOCH.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    static final long DAY_MILLIS = 24L * 3600L * 1000L;
+
+    private final long seed;
 
-public class RandomValueProvider implements ValueProvider {
-    private final Random rnd = new Random();
+    public RandomValueProvider() {
+        this(new SplittableRandom().nextLong());
+    }
 
-    public RandomValueProvider() {}
+    public RandomValueProvider(long seed) {
+        this.seed = seed;
+    }
 
     @Override
-    public Object provideValue(Class<?> entityType, Field field, int index) {
+    public ColumnGenerator generatorFor(Class<?> entityType, Field field) {
         Class<?> t = field.getType();
         String name = field.getName().toLowerCase();
+        long s = SeededRandom.stream(seed, entityType, field.getName());
 
         if (String.class.equals(t)) {
-            if (name.contains("email")) return "user" + rnd.nextInt(1_000_000) + "@example.com";
-            if (name.contains("name")) return field.getName() + "-" + Math.abs(rnd.nextInt(1_000_000));
-            return "str" + rnd.nextInt(10000);
+            if (name.contains("email")) return i -> "user" + SeededRandom.nextInt(s, i, 1_000_000) + "@example.com";
+            String prefix = field.getName() + "-";
+            if (name.contains("name")) return i -> prefix + SeededRandom.nextInt(s, i, 1_000_000);
+            return i -> "str" + SeededRandom.nextInt(s, i, 10000);
         }
-        if (Integer.class.equals(t) || int.class.equals(t)) return rnd.nextInt(1000);
-        if (Long.class.equals(t) || long.class.equals(t)) return Math.abs(rnd.nextLong() % 100000);
-        if (Double.class.equals(t) || double.class.equals(t)) return Math.round(rnd.nextDouble() * 10000.0) / 100.0;
-        if (BigDecimal.class.equals(t)) return BigDecimal.valueOf(Math.round(rnd.nextDouble() * 10000.0) / 100.0);
-        if (Boolean.class.equals(t) || boolean.class.equals(t)) return rnd.nextBoolean();
-        if (LocalDate.class.equals(t)) return LocalDate.now().minusDays(rnd.nextInt(3650));
-        if (Date.class.equals(t)) return new Date(System.currentTimeMillis() - (long) rnd.nextInt(365) * 24L * 3600L * 1000L);
+        if (Integer.class.equals(t) || int.class.equals(t)) return (ColumnGenerator.OfInt) i -> SeededRandom.nextInt(s, i, 1000);
+        if (Long.class.equals(t) || long.class.equals(t)) return (ColumnGenerator.OfLong) i -> SeededRandom.nextInt(s, i, 100000);
+        if (Double.class.equals(t) || double.class.equals(t)) return (ColumnGenerator.OfDouble) i -> Math.round(SeededRandom.nextDouble(s, i) * 10000.0) / 100.0;
+        if (BigDecimal.class.equals(t)) return i -> BigDecimal.valueOf(Math.round(SeededRandom.nextDouble(s, i) * 10000.0) / 100.0);
+        if (Boolean.class.equals(t) || boolean.class.equals(t)) return (ColumnGenerator.OfBoolean) i -> SeededRandom.nextBoolean(s, i);
+        if (LocalDate.class.equals(t)) return i -> EPOCH.minusDays(SeededRandom.nextInt(s, i, 3650));
+        if (Date.class.equals(t)) return i -> new Date(EPOCH_MILLIS - SeededRandom.nextInt(s, i, 365) * DAY_MILLIS);
 
         // enums
         if (t.isEnum()) {
             Object[] consts = t.getEnumConstants();
-            if (consts != null && consts.length > 0) return consts[rnd.nextInt(consts.length)];
+            if (consts != null && consts.length > 0) return i -> consts[SeededRandom.nextInt(s, i, consts.length)];
         }
 
         return null;
     }
+
+    // same shapes as above, with the random part replaced by a permutation of the row index
+    @Override
+    public ColumnGenerator uniqueGeneratorFor(Class<?> entityType, Field field) {
+        Class<?> t = field.getType();
+        String name = field.getName().toLowerCase();
+        long s = SeededRandom.stream(seed, entityType, field.getName());
+
+        if (String.class.equals(t)) {
+            if (name.contains("email")) return i -> "user" + SeededRandom.permute(s, i) + "@example.com";
+            String prefix = name.contains("name") ? field.getName() + "-" : "str";
+            return i -> prefix + SeededRandom.permute(s, i);
+        }
+        if (Integer.class.equals(t) || int.class.equals(t)) return (ColumnGenerator.OfInt) i -> SeededRandom.permute(s, i);
+        if (Long.class.equals(t) || long.class.equals(t)) return (ColumnGenerator.OfLong) i -> SeededRandom.permute(s, i);
+        return null;
+    }
 }
@@ -0,0 +1,34 @@
+package com.autodb.mockdb.provider;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * A fixed dictionary of strings drawn by index. Entries are interned within the pool, so the repeats a source
+ * produces (first names, departments) share one instance and the table costs little more than its distinct values.
+ */
+final class StringPool {
+
+    private final String[] values;
+
+    private StringPool(String[] values) {
+        this.values = values;
+    }
+
+    /** `size` entries, entry i taken from `source.apply(i)`; null results become empty strings. */
+    static StringPool build(int size, IntFunction<String> source) {
+        String[] values = new String[Math.max(1, size)];
+        Map<String, String> interned = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            String v = source.apply(i);
+            values[i] = interned.computeIfAbsent(v == null ? "" : v, k -> k);
+        }
+        return new StringPool(values);
+    }
+
+    /** Entry picked by the top 32 bits of `bits`, so one draw can serve two pools through its halves. */
+    String pick(long bits) {
+        return values[(int) (((bits >>> 32) * values.length) >>> 32)];
+    }
+}
@@ -0,0 +1,28 @@
+package com.autodb.mockdb.seeder;
+
+import com.autodb.mockdb.metrics.SeedingReport;
+
+/** Callbacks over one seeding run. All methods may be called from a background or worker thread. */
+public interface SeedingListener {
+
+    SeedingListener NONE = new SeedingListener() {};
+
+    default void started() {}
+
+    /** Every row of `type` is written (and committed in chunked modes); its cyclic references and links may still follow. */
+    default void entitySeeded(Class<?> type, int rows) {}
+
+    default void finished(SeedingReport report) {}
+
+    default void failed(Throwable error) {}
+
+    default SeedingListener andThen(SeedingListener next) {
+        SeedingListener first = this;
+        return new SeedingListener() {
+            public void started() { first.started(); next.started(); }
+            public void entitySeeded(Class<?> type, int rows) { first.entitySeeded(type, rows); next.entitySeeded(type, rows); }
+            public void finished(SeedingReport report) { first.finished(report); next.finished(report); }
+            public void failed(Throwable error) { first.failed(error); next.failed(error); }
+        };
+    }
+}
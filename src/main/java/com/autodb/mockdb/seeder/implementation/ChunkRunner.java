@@ -0,0 +1,118 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.writer.EntityWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs a unit of streaming work in its own transaction (when a template is given), then flushes
+ * the writer and clears the persistence context so nothing stays managed between chunks.
+ */
+class ChunkRunner {
+
+    interface Work {
+        void run() throws IllegalAccessException;
+    }
+
+    /** Work over the positions [from, to) of some ordered set of rows, with a result to hand over after commit. */
+    interface RangeWork<T> {
+        T run(int from, int to) throws IllegalAccessException;
+
+        /** Undo what the last run left outside the database, once its transaction was rolled back. */
+        default void rolledBack() {}
+    }
+
+    interface Failure {
+        void at(int position, RuntimeException error);
+    }
+
+    private final EntityManager em;
+    private final EntityWriter writer;
+    private final TransactionTemplate tx;
+    private final int maxFailures;
+    private final AtomicInteger failures = new AtomicInteger();
+
+    ChunkRunner(EntityManager em, EntityWriter writer, TransactionTemplate tx) {
+        this(em, writer, tx, 0);
+    }
+
+    /** `maxFailures` positions may be skipped by {@link #runIsolated} before a failure ends the run; negative for no limit. */
+    ChunkRunner(EntityManager em, EntityWriter writer, TransactionTemplate tx, int maxFailures) {
+        this.em = em;
+        this.writer = writer;
+        this.tx = tx;
+        this.maxFailures = maxFailures;
+    }
+
+    void run(Work work) {
+        Runnable chunk = () -> {
+            try {
+                work.run();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+            writer.flush();
+            em.clear();
+        };
+        if (tx == null) chunk.run();
+        else tx.executeWithoutResult(status -> chunk.run());
+    }
+
+    /**
+     * Run `work` over [from, to) as one chunk and hand its result to `committed` once the transaction commits.
+     * A failed chunk is rolled back, split in halves and retried, down to single positions; a position that still
+     * fails goes to `failed` and is skipped. Work must be a pure function of its range for the retries to redo it:
+     * whatever a run records outside the database, it takes back in {@link RangeWork#rolledBack()}.
+     * Without a transaction template there is nothing to roll back to, so the first failure propagates.
+     */
+    <T> void runIsolated(int from, int to, RangeWork<T> work, Consumer<T> committed, Failure failed) {
+        List<T> result = new ArrayList<>(1);
+        try {
+            run(() -> result.add(work.run(from, to)));
+        } catch (RuntimeException e) {
+            if (tx == null) throw e;
+            writer.discard();
+            work.rolledBack();
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                runIsolated(from, mid, work, committed, failed);
+                runIsolated(mid, to, work, committed, failed);
+                return;
+            }
+            int n = failures.incrementAndGet();
+            if (maxFailures >= 0 && n > maxFailures) {
+                throw new IllegalStateException("[mockdb] more than " + maxFailures + " rows failed (mockdb.max-failed-rows)", e);
+            }
+            failed.at(from, e);
+            return;
+        }
+        committed.accept(result.get(0));
+    }
+
+    /** Load the rows of `cls` with the given primary keys in one query. */
+    <T> List<T> load(Class<T> cls, List<Object> ids) {
+        return em.createQuery("select e from " + entityName(cls) + " e where e." + idAttribute(cls) + " in :ids", cls)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    String entityName(Class<?> cls) {
+        return em.getMetamodel().entity(cls).getName();
+    }
+
+    String idAttribute(Class<?> cls) {
+        EntityType<?> type = em.getMetamodel().entity(cls);
+        return type.getSingularAttributes().stream()
+                .filter(SingularAttribute::isId)
+                .map(SingularAttribute::getName)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("no single id attribute on " + cls.getSimpleName()));
+    }
+}
@@ -1,21 +1,33 @@
 package com.autodb.mockdb.seeder.implementation;
 
+import com.autodb.mockdb.config.FanOut;
+import com.autodb.mockdb.config.MockDbProperties;
 import com.autodb.mockdb.seeder.CollectionPopulatorService;
+import com.autodb.mockdb.util.SeededRandom;
+import com.autodb.mockdb.writer.EntityWriter;
+import com.autodb.mockdb.writer.implementation.JoinTableWriter;
 import jakarta.persistence.EntityManager;
-import com.autodb.mockdb.util.ReflectionUtils;
+import jakarta.persistence.PersistenceUnitUtil;
 
-import java.lang.reflect.Field;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 public class CollectionPopulator implements CollectionPopulatorService {
 
     private final EntityManager em;
+    private final MockDbProperties props;
     private final Map<Class<?>, List<Object>> created;
-    private final Random rnd = new Random();
+    private final EntityWriter writer;
+    private final JoinTableWriter joins;
+    private final long seed;
 
-    public CollectionPopulator(EntityManager em, Map<Class<?>, List<Object>> created) {
+    public CollectionPopulator(EntityManager em, MockDbProperties props, Map<Class<?>, List<Object>> created, EntityWriter writer) {
         this.em = em;
+        this.props = props;
         this.created = created;
+        this.writer = writer;
+        this.joins = JoinTableWriter.tryCreate(em, props.getBatchSize());
+        this.seed = props.resolveSeed();
     }
 
     @Override
@@ -24,64 +36,96 @@ public class CollectionPopulator implements CollectionPopulatorService {
             Class<?> parentClass = parentEntry.getKey();
             List<Object> parentInstances = parentEntry.getValue();
 
-            for (Field parentField : ReflectionUtils.getAllFields(parentClass)) {
-                if (!parentField.isAnnotationPresent(jakarta.persistence.OneToMany.class)) continue;
-                parentField.setAccessible(true);
-
-                Class<?> childClass = ReflectionUtils.extractGenericListType(parentField);
+            for (FieldPlan parentField : EntityPlan.of(parentClass).oneToMany()) {
+                Class<?> childClass = parentField.target();
                 if (childClass == null) continue;
 
-                List<Object> childPool = created.getOrDefault(childClass, Collections.emptyList());
+                Map<Object, List<Object>> childrenByParent =
+                        indexByParent(created.getOrDefault(childClass, Collections.emptyList()), backReferences(parentField, parentClass));
 
                 for (Object parentInst : parentInstances) {
-                    List<Object> children = new ArrayList<>();
-                    for (Object childInst : childPool) {
-                        for (Field childField : ReflectionUtils.getAllFields(childClass)) {
-                            if (childField.getType().equals(parentClass) &&
-                                    (childField.isAnnotationPresent(jakarta.persistence.ManyToOne.class) ||
-                                            childField.isAnnotationPresent(jakarta.persistence.OneToOne.class))) {
-                                childField.setAccessible(true);
-                                Object val = childField.get(childInst);
-                                if (val != null && val.equals(parentInst)) children.add(childInst);
-                            }
-                        }
-                    }
+                    List<Object> children = childrenByParent.getOrDefault(parentInst, new ArrayList<>());
                     parentField.set(parentInst, children);
+                    writer.link(parentClass, parentField.field(), parentInst, children);
                 }
             }
         }
-        em.flush();
+        writer.flush();
+
+    }
 
+    /** The child fields pointing back at `parentClass`: the mappedBy field when declared, otherwise every to-one of that type. */
+    static List<FieldPlan> backReferences(FieldPlan parentField, Class<?> parentClass) {
+        return EntityPlan.of(parentField.target()).toOne().stream()
+                .filter(f -> f.type().equals(parentClass))
+                .filter(f -> parentField.isOwning() || f.name().equals(parentField.mappedBy()))
+                .toList();
+    }
+
+    /** Group the children by the instance their back reference points at, in one pass over the pool. */
+    private static Map<Object, List<Object>> indexByParent(List<Object> childPool, List<FieldPlan> backRefs) {
+        Map<Object, List<Object>> index = new IdentityHashMap<>();
+        if (backRefs.isEmpty()) return index;
+        for (Object childInst : childPool) {
+            for (FieldPlan childField : backRefs) {
+                Object parent = childField.get(childInst);
+                if (parent != null) index.computeIfAbsent(parent, k -> new ArrayList<>()).add(childInst);
+            }
+        }
+        return index;
     }
 
     @Override
     public void populateManyToManyRelations() throws IllegalAccessException {
+        // join rows reference both sides by key, so every pending insert has to reach the database first
+        writer.flush();
+        PersistenceUnitUtil units = em.getEntityManagerFactory().getPersistenceUnitUtil();
+
         for (Map.Entry<Class<?>, List<Object>> entry : created.entrySet()) {
             Class<?> cls = entry.getKey();
             List<Object> instances = entry.getValue();
 
-            for (Field f : ReflectionUtils.getAllFields(cls)) {
-                if (!f.isAnnotationPresent(jakarta.persistence.ManyToMany.class)) continue;
-                f.setAccessible(true);
-
-                Class<?> targetType = ReflectionUtils.extractGenericListType(f);
-                if (targetType == null) continue;
+            for (FieldPlan f : EntityPlan.of(cls).manyToMany()) {
+                Class<?> targetType = f.target();
+                if (targetType == null || !f.isOwning()) continue;
 
                 List<Object> targetPool = created.getOrDefault(targetType, Collections.emptyList());
                 if (targetPool.isEmpty()) continue;
 
-                for (Object source : instances) {
-                    int linkCount = 1 + rnd.nextInt(Math.min(5, targetPool.size()));
-                    Collections.shuffle(targetPool);
-                    List<Object> selected = new ArrayList<>(targetPool.subList(0, linkCount));
-                    f.set(source, selected);
+                FanOut fanOut = fanOut(props, cls, f);
+                long stream = SeededRandom.stream(seed, cls, f.name());
+                if (joins == null || !joins.supports(cls, f.field())) {
+                    for (int row = 0; row < instances.size(); row++) {
+                        Object source = instances.get(row);
+                        RandomGenerator rnd = SeededRandom.random(stream, row);
+                        List<Object> selected = new ArrayList<>();
+                        for (int i : IndexSampler.distinct(rnd, targetPool.size(), fanOut.sample(rnd, targetPool.size()))) {
+                            selected.add(targetPool.get(i));
+                        }
+                        f.set(source, selected);
+                        writer.link(cls, f.field(), source, selected);
+                    }
+                    continue;
+                }
+
+                List<Object> targetIds = new ArrayList<>(targetPool.size());
+                for (Object target : targetPool) targetIds.add(units.getIdentifier(target));
+                for (int row = 0; row < instances.size(); row++) {
+                    Object sourceId = units.getIdentifier(instances.get(row));
+                    RandomGenerator rnd = SeededRandom.random(stream, row);
+                    for (int i : IndexSampler.distinct(rnd, targetIds.size(), fanOut.sample(rnd, targetIds.size()))) {
+                        joins.add(cls, f.field(), sourceId, targetIds.get(i));
+                    }
                 }
             }
         }
-        em.flush();
+        writer.flush();
+        if (joins != null) joins.flush();
+    }
 
-        System.out.println("[mockdb] seeding completed; persisted counts:");
-        created.forEach((k, v) -> System.out.println("  " + k.getSimpleName() + ": " + v.size()));
+    /** The relationship's own fan-out, or the global many-to-many default. */
+    static FanOut fanOut(MockDbProperties props, Class<?> cls, FieldPlan f) {
+        FanOut own = props.relationshipFanOut(cls, f.name());
+        return own != null ? own : props.getManyToMany();
     }
 }
-
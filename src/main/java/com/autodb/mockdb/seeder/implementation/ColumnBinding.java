@@ -0,0 +1,119 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.provider.ColumnGenerator;
+import com.autodb.mockdb.provider.ColumnarValueProvider;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A scalar field paired with the generator that fills it. Bound once per entity class; {@link #fill}
+ * then writes one column across a whole batch, unboxed when both the field and the generator are primitive.
+ */
+abstract class ColumnBinding {
+
+    final FieldPlan field;
+    final ColumnGenerator generator;
+    /** The generator never repeats a value across row indexes, so no duplicate check is needed. */
+    final boolean distinct;
+
+    private ColumnBinding(FieldPlan field, ColumnGenerator generator, boolean distinct) {
+        this.field = field;
+        this.generator = generator;
+        this.distinct = distinct;
+    }
+
+    /** Set this column on every row; rows[i] gets the value for index firstIndex + i. */
+    abstract void fill(List<Object> rows, int firstIndex);
+
+    /**
+     * Bindings for every scalar of `cls` the provider can generate, in field order. A field that is unique on
+     * its own takes the provider's collision-free generator when it has one.
+     */
+    static List<ColumnBinding> bind(Class<?> cls, ColumnarValueProvider provider) {
+        Set<FieldPlan> unique = new HashSet<>();
+        for (List<FieldPlan> constraint : UniqueGuard.constraints(cls)) {
+            if (constraint.size() == 1) unique.add(constraint.get(0));
+        }
+        List<ColumnBinding> out = new ArrayList<>();
+        for (FieldPlan f : EntityPlan.of(cls).scalars()) {
+            ColumnGenerator g;
+            boolean distinct = false;
+            try {
+                g = unique.contains(f) ? provider.uniqueGeneratorFor(cls, f.field()) : null;
+                distinct = g != null;
+                if (g == null) g = provider.generatorFor(cls, f.field());
+            } catch (RuntimeException ex) {
+                System.err.println("[mockdb] no generator for " + cls.getSimpleName() + "." + f.name() + ": " + ex.getMessage());
+                continue;
+            }
+            if (g != null) out.add(of(f, g, distinct));
+        }
+        return out;
+    }
+
+    private static ColumnBinding of(FieldPlan f, ColumnGenerator g, boolean distinct) {
+        Class<?> t = f.type();
+        if (t == int.class && g instanceof ColumnGenerator.OfInt ints) {
+            return new ColumnBinding(f, g, distinct) {
+                void fill(List<Object> rows, int firstIndex) {
+                    int[] column = new int[rows.size()];
+                    ints.fillInts(column, firstIndex);
+                    for (int i = 0; i < column.length; i++) field.setInt(rows.get(i), column[i]);
+                }
+            };
+        }
+        if (t == long.class && g instanceof ColumnGenerator.OfLong longs) {
+            return new ColumnBinding(f, g, distinct) {
+                void fill(List<Object> rows, int firstIndex) {
+                    long[] column = new long[rows.size()];
+                    longs.fillLongs(column, firstIndex);
+                    for (int i = 0; i < column.length; i++) field.setLong(rows.get(i), column[i]);
+                }
+            };
+        }
+        if (t == double.class && g instanceof ColumnGenerator.OfDouble doubles) {
+            return new ColumnBinding(f, g, distinct) {
+                void fill(List<Object> rows, int firstIndex) {
+                    double[] column = new double[rows.size()];
+                    doubles.fillDoubles(column, firstIndex);
+                    for (int i = 0; i < column.length; i++) field.setDouble(rows.get(i), column[i]);
+                }
+            };
+        }
+        if (t == boolean.class && g instanceof ColumnGenerator.OfBoolean booleans) {
+            return new ColumnBinding(f, g, distinct) {
+                void fill(List<Object> rows, int firstIndex) {
+                    boolean[] column = new boolean[rows.size()];
+                    booleans.fillBooleans(column, firstIndex);
+                    for (int i = 0; i < column.length; i++) field.setBoolean(rows.get(i), column[i]);
+                }
+            };
+        }
+        return new ColumnBinding(f, g, distinct) {
+            void fill(List<Object> rows, int firstIndex) {
+                Object[] column = new Object[rows.size()];
+                try {
+                    g.fill(column, firstIndex);
+                } catch (RuntimeException ex) {
+                    // one bad value should not cost the whole column; retry row by row
+                    for (int i = 0; i < column.length; i++) {
+                        try {
+                            column[i] = g.next(firstIndex + i);
+                        } catch (RuntimeException ignored) {
+                            column[i] = null;
+                        }
+                    }
+                }
+                for (int i = 0; i < column.length; i++) {
+                    if (column[i] == null) continue;
+                    try {
+                        field.set(rows.get(i), column[i]);
+                    } catch (RuntimeException ignored) {}
+                }
+            }
+        };
+    }
+}
@@ -1,44 +1,169 @@
 package com.autodb.mockdb.seeder.implementation;
 
-import com.autodb.mockdb.util.ReflectionUtils;
-import java.lang.reflect.Field;
 import java.util.*;
+import java.util.stream.Collectors;
 
 
 public class DependencyOrderResolver {
 
+    /**
+     * Seeding order for a set of entities. `layers` only depend on earlier layers. `deferred` holds the to-one
+     * fields that close a cycle: they are inserted as NULL and filled by one UPDATE pass per field afterwards.
+     */
+    public record Plan(List<List<Class<?>>> layers, Map<Class<?>, List<FieldPlan>> deferred) {
+
+        public List<Class<?>> order() {
+            List<Class<?>> result = new ArrayList<>();
+            layers.forEach(result::addAll);
+            return result;
+        }
+
+        public boolean isDeferred(Class<?> cls, FieldPlan f) {
+            List<FieldPlan> fields = deferred.get(cls);
+            return fields != null && fields.contains(f);
+        }
+    }
+
     public static List<Class<?>> orderByDependenciesCycleSafe(List<Class<?>> entities) {
-        Map<Class<?>, Set<Class<?>>> deps = new HashMap<>();
-        for (Class<?> cls : entities) {
-            Set<Class<?>> dset = new HashSet<>();
-            for (Field f : ReflectionUtils.getAllFields(cls)) {
-                if (f.isAnnotationPresent(jakarta.persistence.ManyToOne.class) ||
-                        f.isAnnotationPresent(jakarta.persistence.OneToOne.class)) {
-                    Class<?> target = f.getType();
-                    if (entities.contains(target) && !target.equals(cls)) dset.add(target);
+        return plan(entities).order();
+    }
+
+    /** Same ordering, grouped into layers whose members only depend on earlier layers, so a layer can be seeded at once. */
+    public static List<List<Class<?>>> layersCycleSafe(List<Class<?>> entities) {
+        return plan(entities).layers();
+    }
+
+    /**
+     * Orders the strongly connected components of the foreign key graph (Tarjan), dependencies first. Inside a cycle,
+     * classes follow their non-nullable references and every remaining reference to a later class is deferred.
+     * Self references are not deferred: they point at rows already written for the same class.
+     */
+    public static Plan plan(List<Class<?>> entities) {
+        List<Class<?>> sorted = entities.stream().distinct().sorted(Comparator.comparing(Class::getName)).toList();
+        Set<Class<?>> known = new HashSet<>(sorted);
+        Map<Class<?>, List<FieldPlan>> edges = new HashMap<>();
+        for (Class<?> cls : sorted) {
+            List<FieldPlan> out = new ArrayList<>();
+            // an inverse OneToOne has no column, so the other side is what depends on it
+            for (FieldPlan f : EntityPlan.of(cls).references()) {
+                if (known.contains(f.target()) && f.target() != cls) out.add(f);
+            }
+            edges.put(cls, out);
+        }
+
+        Map<Class<?>, Integer> layerOf = new HashMap<>();
+        Map<Class<?>, List<FieldPlan>> deferred = new LinkedHashMap<>();
+        // Tarjan emits a component only after every component it points at, so dependencies already have a layer
+        for (List<Class<?>> component : new Tarjan(sorted, edges).components) {
+            Set<Class<?>> members = new HashSet<>(component);
+            Set<Class<?>> placed = new HashSet<>();
+            for (Class<?> cls : component.size() == 1 ? component : cycleOrder(component, members, edges)) {
+                int layer = 0;
+                for (FieldPlan f : edges.get(cls)) {
+                    if (!members.contains(f.target()) || placed.contains(f.target())) {
+                        layer = Math.max(layer, layerOf.get(f.target()) + 1);
+                    } else {
+                        deferred.computeIfAbsent(cls, k -> new ArrayList<>()).add(f);
+                    }
                 }
+                layerOf.put(cls, layer);
+                placed.add(cls);
             }
-            deps.put(cls, dset);
         }
 
-        List<Class<?>> result = new ArrayList<>();
-        Set<Class<?>> remaining = new HashSet<>(entities);
+        List<List<Class<?>>> layers = new ArrayList<>();
+        for (Class<?> cls : sorted) {
+            int layer = layerOf.get(cls);
+            while (layers.size() <= layer) layers.add(new ArrayList<>());
+            layers.get(layer).add(cls);
+        }
+        if (!deferred.isEmpty()) {
+            System.out.println("[mockdb] reference cycles: " + describe(deferred) + " are inserted as NULL and updated afterwards");
+        }
+        return new Plan(layers, deferred);
+    }
 
+    /** Members of one cycle, each after the members it references through non-nullable fields. */
+    private static List<Class<?>> cycleOrder(List<Class<?>> component, Set<Class<?>> members,
+                                             Map<Class<?>, List<FieldPlan>> edges) {
+        List<Class<?>> order = new ArrayList<>();
+        Set<Class<?>> remaining = new LinkedHashSet<>(component);
         while (!remaining.isEmpty()) {
-            List<Class<?>> free = remaining.stream()
-                    .filter(c -> deps.getOrDefault(c, Collections.emptySet())
-                            .stream().noneMatch(remaining::contains))
-                    .toList();
-
-            if (free.isEmpty()) {
-                result.addAll(remaining);
-                break;
+            Class<?> next = remaining.stream()
+                    .filter(c -> required(c, edges).stream().noneMatch(f -> remaining.contains(f.target())))
+                    .findFirst()
+                    .orElse(null);
+            if (next == null) {
+                // only NOT NULL references are left in the cycle; one of them has to be inserted as NULL anyway
+                next = remaining.iterator().next();
+                Class<?> breaking = next;
+                List<FieldPlan> broken = required(breaking, edges).stream()
+                        .filter(f -> remaining.contains(f.target()) && f.target() != breaking)
+                        .toList();
+                System.err.println("[mockdb] non-nullable reference cycle through " + remaining.stream()
+                        .map(Class::getSimpleName).collect(Collectors.joining(", "))
+                        + ": " + broken.stream().map(f -> breaking.getSimpleName() + "." + f.name()).collect(Collectors.joining(", "))
+                        + " will be inserted as NULL, which fails unless the column is nullable or the constraint deferred");
             }
+            order.add(next);
+            remaining.remove(next);
+        }
+        return order;
+    }
+
+    private static List<FieldPlan> required(Class<?> cls, Map<Class<?>, List<FieldPlan>> edges) {
+        return edges.get(cls).stream().filter(f -> !f.isOptional()).toList();
+    }
+
+    private static String describe(Map<Class<?>, List<FieldPlan>> deferred) {
+        return deferred.entrySet().stream()
+                .flatMap(e -> e.getValue().stream().map(f -> e.getKey().getSimpleName() + "." + f.name()))
+                .collect(Collectors.joining(", "));
+    }
 
-            result.addAll(free);
-            free.forEach(remaining::remove);
+    /** Tarjan's strongly connected components, emitted in reverse topological order of the component graph. */
+    private static final class Tarjan {
+
+        final List<List<Class<?>>> components = new ArrayList<>();
+        private final Map<Class<?>, List<FieldPlan>> edges;
+        private final Map<Class<?>, Integer> index = new HashMap<>();
+        private final Map<Class<?>, Integer> low = new HashMap<>();
+        private final Deque<Class<?>> stack = new ArrayDeque<>();
+        private final Set<Class<?>> onStack = new HashSet<>();
+
+        Tarjan(List<Class<?>> nodes, Map<Class<?>, List<FieldPlan>> edges) {
+            this.edges = edges;
+            for (Class<?> cls : nodes) {
+                if (!index.containsKey(cls)) visit(cls);
+            }
         }
 
-        return result;
+        private void visit(Class<?> cls) {
+            int i = index.size();
+            index.put(cls, i);
+            low.put(cls, i);
+            stack.push(cls);
+            onStack.add(cls);
+            for (FieldPlan f : edges.get(cls)) {
+                Class<?> target = f.target();
+                if (!index.containsKey(target)) {
+                    visit(target);
+                    low.put(cls, Math.min(low.get(cls), low.get(target)));
+                } else if (onStack.contains(target)) {
+                    low.put(cls, Math.min(low.get(cls), index.get(target)));
+                }
+            }
+            if (low.get(cls) == i) {
+                List<Class<?>> component = new ArrayList<>();
+                Class<?> member;
+                do {
+                    member = stack.pop();
+                    onStack.remove(member);
+                    component.add(member);
+                } while (member != cls);
+                component.sort(Comparator.comparing(Class::getName));
+                components.add(component);
+            }
+        }
     }
 }
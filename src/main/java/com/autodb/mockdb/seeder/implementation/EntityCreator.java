@@ -1,28 +1,60 @@
 package com.autodb.mockdb.seeder.implementation;
+import com.autodb.mockdb.config.EntitySettings;
+import com.autodb.mockdb.config.FanOut;
 import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.metrics.SeedingMetrics;
+import com.autodb.mockdb.provider.ColumnarValueProvider;
 import com.autodb.mockdb.provider.ValueProvider;
 import com.autodb.mockdb.seeder.EntityCreatorService;
+import com.autodb.mockdb.seeder.SeedingListener;
+import com.autodb.mockdb.util.SeededRandom;
+import com.autodb.mockdb.writer.EntityWriter;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.metamodel.EntityType;
-import com.autodb.mockdb.util.ReflectionUtils;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 public class EntityCreator implements EntityCreatorService {
 
-    private final EntityManager em;
-    private final MockDbProperties props;
+    protected final EntityManager em;
+    protected final MockDbProperties props;
     private final ValueProvider provider;
-    private final Random rnd = new Random();
+    private final ColumnarValueProvider columns;
+    private final Map<Class<?>, List<ColumnBinding>> bindings = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<UniqueGuard>> guards = new ConcurrentHashMap<>();
+    protected final EntityWriter writer;
+    protected final SeedingMetrics metrics;
+    protected final long seed;
     private final Map<Class<?>, List<Object>> created = new HashMap<>();
+    protected SeedingListener listener = SeedingListener.NONE;
+    private final Map<Class<?>, Assigned> assignments = new ConcurrentHashMap<>();
+    private final Set<Class<?>> resolving = new HashSet<>();
+    private final ReferenceSampler.Cache samplers = new ReferenceSampler.Cache();
+    private DependencyOrderResolver.Plan order;
 
-    public EntityCreator(EntityManager em, MockDbProperties props, ValueProvider provider) {
+    /** A to-one field whose targets follow a parent's OneToMany fan-out instead of random picks. */
+    private record Assigned(FieldPlan field, ParentAssignment layout) {}
+
+    public EntityCreator(EntityManager em, MockDbProperties props, ValueProvider provider, EntityWriter writer) {
+        this(em, props, provider, writer, new SeedingMetrics());
+    }
+
+    public EntityCreator(EntityManager em, MockDbProperties props, ValueProvider provider, EntityWriter writer,
+                         SeedingMetrics metrics) {
         this.em = em;
         this.props = props;
         this.provider = provider;
+        this.columns = provider == null ? null : ColumnarValueProvider.adapt(provider);
+        this.writer = writer;
+        this.metrics = metrics;
+        this.seed = props.resolveSeed();
+    }
+
+    public void setListener(SeedingListener listener) {
+        this.listener = listener;
     }
 
     public Map<Class<?>, List<Object>> getCreatedEntities() {
@@ -37,56 +69,221 @@ public class EntityCreator implements EntityCreatorService {
         if (!props.isEnabled()) return;
         int perEntity = props.resolveCount();
 
-        System.out.println("[mockdb] seeding mode=" + props.getLevel() + " count=" + perEntity);
+        System.out.println("[mockdb] seeding mode=" + props.getLevel() + " count=" + perEntity + " seed=" + seed);
+
+        for (Class<?> cls : plan().order()) {
+            createInstances(cls, countFor(cls));
+            listener.entitySeeded(cls, rowCount(cls));
+        }
+    }
+
+    /** Dependency order of every entity; the references that close a cycle are left NULL by instantiate. */
+    protected DependencyOrderResolver.Plan plan() {
+        order = DependencyOrderResolver.plan(discoverEntities());
+        return order;
+    }
+
+    /** True for a to-one field that closes a reference cycle and is inserted as NULL. */
+    protected boolean isCycleEdge(Class<?> cls, FieldPlan f) {
+        return order != null && order.isDeferred(cls, f);
+    }
+
+    /**
+     * Rows to create for `cls`, from the first of: a fan-out on a parent's OneToMany, `entities.<cls>.count`,
+     * `ratio` times the count of `per`, the global count/level. Call it once the parents are written.
+     */
+    protected int countFor(Class<?> cls) {
+        if (!resolving.add(cls)) {
+            System.err.println("[mockdb] circular `per` for " + cls.getSimpleName() + ", using the global count");
+            return props.resolveCount();
+        }
+        try {
+            return resolveCount(cls);
+        } finally {
+            resolving.remove(cls);
+        }
+    }
+
+    private int resolveCount(Class<?> cls) {
+        EntitySettings settings = props.entitySettings(cls);
+        Assigned assigned = parentAssignment(cls);
+        if (assigned != null) {
+            assignments.put(cls, assigned);
+            if (settings != null && (settings.getCount() > 0 || settings.getRatio() > 0)) {
+                System.err.println("[mockdb] " + cls.getSimpleName() + " count follows the fan-out of "
+                        + assigned.field().target().getSimpleName() + "; its own count/ratio is ignored");
+            }
+            return assigned.layout().total();
+        }
+        if (settings == null) return props.resolveCount();
+        if (settings.getCount() > 0) return settings.getCount();
+        if (settings.getRatio() > 0 && settings.getPer() != null) {
+            Class<?> per = entityNamed(settings.getPer());
+            if (per != null) {
+                int base = rowCount(per) > 0 ? rowCount(per) : countFor(per);
+                return (int) Math.min(Integer.MAX_VALUE, Math.round(settings.getRatio() * base));
+            }
+            System.err.println("[mockdb] unknown entity `" + settings.getPer() + "` in per of " + cls.getSimpleName());
+        }
+        return props.resolveCount();
+    }
+
+    /** The first to-one of `cls` whose written parent has a fan-out configured on the matching OneToMany. */
+    private Assigned parentAssignment(Class<?> cls) {
+        for (FieldPlan f : EntityPlan.of(cls).references()) {
+            Class<?> parent = f.target();
+            int parents = rowCount(parent);
+            if (parents == 0 || parent == cls) continue;
+            for (FieldPlan children : EntityPlan.of(parent).oneToMany()) {
+                if (children.target() != cls) continue;
+                FanOut fanOut = props.relationshipFanOut(parent, children.name());
+                if (fanOut == null || !CollectionPopulator.backReferences(children, parent).contains(f)) continue;
+                return new Assigned(f, ParentAssignment.of(fanOut, SeededRandom.stream(seed, parent, children.name()), parents));
+            }
+        }
+        return null;
+    }
+
+    private Class<?> entityNamed(String name) {
+        for (Class<?> cls : discoverEntities()) {
+            if (cls.getSimpleName().equals(name) || cls.getName().equals(name)) return cls;
+        }
+        return null;
+    }
 
+    /** Rows of `cls` written so far. */
+    protected int rowCount(Class<?> cls) {
+        List<Object> rows = created.get(cls);
+        return rows == null ? 0 : rows.size();
+    }
+
+    protected List<Class<?>> discoverEntities() {
         Set<EntityType<?>> entityTypes = em.getMetamodel().getEntities();
-        List<Class<?>> entities = entityTypes.stream()
+        return entityTypes.stream()
                 .map(EntityType::getJavaType)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
-
-        List<Class<?>> ordered = DependencyOrderResolver.orderByDependenciesCycleSafe(entities);
-
-        for (Class<?> cls : ordered) createInstances(cls, perEntity);
     }
 
-    private void createInstances(Class<?> cls, int count) {
+    protected void createInstances(Class<?> cls, int count) {
         List<Object> list = created.computeIfAbsent(cls, k -> new ArrayList<>());
         int toCreate = Math.max(0, count - list.size());
-        for (int i = 0; i < toCreate; i++) {
+        createRange(cls, 0, toCreate, list, null);
+    }
+
+    /**
+     * Build rows [from, to) of `cls` and hand them to the writer batch by batch; written rows land in `sink`.
+     * The unique values they take are recorded in `claims` for a rollback to give back; null when none can come.
+     */
+    protected void createRange(Class<?> cls, int from, int to, List<Object> sink, UniqueGuard.Claims claims) {
+        int batchSize = Math.max(1, props.getBatchSize());
+        List<Object> batch = new ArrayList<>(Math.min(batchSize, to - from));
+        long[] valueNanos = new long[1];
+        long start = System.nanoTime();
+        int batchFrom = from;
+        for (int i = from; i < to; i++) {
+            boolean failed = false;
             try {
-                Object inst = instantiateAndPopulate(cls, i);
-                em.persist(inst);
-                list.add(inst);
+                batch.add(instantiate(cls, i));
             } catch (Exception ex) {
                 System.err.println("[mockdb] failed to create " + cls.getSimpleName() + ": " + ex.getMessage());
+                metrics.rowFailed(cls, ex.toString());
+                failed = true;
+            }
+            // values are numbered by position in the batch, so a failed row ends it and the next starts after it
+            if (failed && batch.isEmpty()) {
+                batchFrom = i + 1;
+            } else if (batch.size() == batchSize || ((failed || i == to - 1) && !batch.isEmpty())) {
+                long valuesStart = System.nanoTime();
+                populateScalars(cls, batch, batchFrom, claims);
+                valueNanos[0] += System.nanoTime() - valuesStart;
+                recordGenerated(cls, batch.size(), System.nanoTime() - start, valueNanos);
+                sink.addAll(writer.insert(cls, batch));
+                batch.clear();
+                batchFrom = i + 1;
+                start = System.nanoTime();
             }
         }
     }
 
-    private Object instantiateAndPopulate(Class<?> cls, int index) throws Exception {
-        Object inst = cls.getDeclaredConstructor().newInstance();
+    private void recordGenerated(Class<?> cls, int rows, long nanos, long[] valueNanos) {
+        metrics.rowsGenerated(cls, rows, nanos);
+        if (provider != null) {
+            metrics.valuesGenerated(provider.getClass().getSimpleName(), rows * EntityPlan.of(cls).scalars().size(), valueNanos[0]);
+        }
+        valueNanos[0] = 0;
+    }
+
+    /** An already-written target for `cls.f`, drawn under its reference distribution, or null when there is none yet. */
+    protected Object pickReference(Class<?> cls, FieldPlan f, RandomGenerator rnd) {
+        int size = referenceable(f.target());
+        if (size == 0) return null;
+        return referenceAt(f.target(), samplers.pick(props.referenceDistribution(cls, f.name()), size, rnd));
+    }
 
-        for (Field f : ReflectionUtils.getAllFields(cls)) {
-            if (Modifier.isStatic(f.getModifiers())) continue;
-            f.setAccessible(true);
+    /** How many rows of `target` new rows may point at right now. */
+    protected int referenceable(Class<?> target) {
+        return rowCount(target);
+    }
 
-            if (f.isAnnotationPresent(jakarta.persistence.Id.class) &&
-                    f.isAnnotationPresent(jakarta.persistence.GeneratedValue.class)) continue;
+    /** The row of `target` at `position` in write order, as something a to-one field can hold. */
+    protected Object referenceAt(Class<?> target, int position) {
+        return created.get(target).get(position);
+    }
 
-            if (f.isAnnotationPresent(jakarta.persistence.OneToMany.class) ||
-                    f.isAnnotationPresent(jakarta.persistence.ManyToMany.class)) continue;
+    private Object instantiate(Class<?> cls, int index) throws Exception {
+        EntityPlan plan = EntityPlan.of(cls);
+        Object inst = plan.newInstance();
 
-            if (f.isAnnotationPresent(jakarta.persistence.ManyToOne.class) ||
-                    f.isAnnotationPresent(jakarta.persistence.OneToOne.class)) continue;
+        // parents come earlier in dependency order, so link them now and spare the later UPDATE;
+        // references that close a cycle stay null for ReferenceResolver; the inverse side of a OneToOne has no column
+        Assigned assigned = assignments.get(cls);
+        for (FieldPlan f : plan.references()) {
+            if (isCycleEdge(cls, f)) continue;
+            int parent = assigned != null && assigned.field() == f ? assigned.layout().parentOf(index) : -1;
+            Object ref = parent >= 0 && parent < referenceable(f.target())
+                    ? referenceAt(f.target(), parent)
+                    : pickReference(cls, f, SeededRandom.random(SeededRandom.stream(seed, cls, f.name()), index));
+            if (ref != null) f.set(inst, ref);
+        }
+        return inst;
+    }
 
+    /**
+     * The duplicate guards of `cls`, built on first use; none without a provider. `existingRows` also guards the
+     * columns whose generator never repeats itself, since the rows already in the table may come from elsewhere.
+     */
+    List<UniqueGuard> uniqueGuards(Class<?> cls, boolean existingRows) {
+        if (columns == null) return List.of();
+        List<ColumnBinding> bound = bindings.computeIfAbsent(cls, c -> ColumnBinding.bind(c, columns));
+        return guards.computeIfAbsent(cls, c -> UniqueGuard.of(c, bound, seed, existingRows));
+    }
+
+    /**
+     * Fill the scalar columns of a batch one column at a time, generators resolved once per class, then hold
+     * back the rows that would break a unique constraint; those are removed from `rows`.
+     */
+    private void populateScalars(Class<?> cls, List<Object> rows, int firstIndex, UniqueGuard.Claims claims) {
+        if (columns == null) return;
+        List<ColumnBinding> bound = bindings.computeIfAbsent(cls, c -> ColumnBinding.bind(c, columns));
+        for (ColumnBinding column : bound) {
             try {
-                Object val = provider.provideValue(cls, f, index);
-                if (val != null) f.set(inst, val);
-            } catch (Throwable ignored) {}
+                column.fill(rows, firstIndex);
+            } catch (RuntimeException ignored) {}
         }
-
-        return inst;
+        List<UniqueGuard> unique = uniqueGuards(cls, false);
+        if (unique.isEmpty()) return;
+        BitSet rejected = new BitSet(rows.size());
+        for (UniqueGuard guard : unique) {
+            int before = rejected.cardinality();
+            guard.check(rows, firstIndex, rejected, claims);
+            int dropped = rejected.cardinality() - before;
+            if (dropped > 0) {
+                System.err.println("[mockdb] dropped " + dropped + " " + cls.getSimpleName() + " rows: no unused value for "
+                        + guard.describe() + " after " + UniqueGuard.MAX_ATTEMPTS + " tries");
+                for (int i = 0; i < dropped; i++) metrics.rowFailed(cls, "duplicate " + guard.describe());
+            }
+        }
+        for (int i = rejected.length() - 1; i >= 0; i = rejected.previousSetBit(i - 1)) rows.remove(i);
     }
 }
-
@@ -0,0 +1,116 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything the seeding stages need to know about an entity class, worked out once per class:
+ * a constructor handle and its fields split by role. The per-row paths only go through the handles.
+ */
+public final class EntityPlan {
+
+    private static final ClassValue<EntityPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected EntityPlan computeValue(Class<?> type) {
+            return new EntityPlan(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final MethodHandle constructor;
+    private final List<FieldPlan> fields = new ArrayList<>();
+    private final List<FieldPlan> scalars = new ArrayList<>();
+    private final List<FieldPlan> toOne = new ArrayList<>();
+    private final List<FieldPlan> references = new ArrayList<>();
+    private final List<FieldPlan> oneToMany = new ArrayList<>();
+    private final List<FieldPlan> manyToMany = new ArrayList<>();
+
+    public static EntityPlan of(Class<?> cls) {
+        return PLANS.get(cls);
+    }
+
+    private EntityPlan(Class<?> type) {
+        this.type = type;
+        this.constructor = constructorHandle(type);
+
+        for (Field f : ReflectionUtils.getAllFields(type)) {
+            if (Modifier.isStatic(f.getModifiers())) continue;
+            FieldPlan.Kind kind = classify(f);
+            FieldPlan plan;
+            try {
+                plan = new FieldPlan(f, kind);
+            } catch (IllegalAccessException | RuntimeException ex) {
+                System.err.println("[mockdb] skipping " + type.getSimpleName() + "." + f.getName() + ": " + ex.getMessage());
+                continue;
+            }
+            fields.add(plan);
+            switch (kind) {
+                case SCALAR -> scalars.add(plan);
+                case TO_ONE -> {
+                    toOne.add(plan);
+                    if (plan.isOwning()) references.add(plan);
+                }
+                case ONE_TO_MANY -> oneToMany.add(plan);
+                case MANY_TO_MANY -> manyToMany.add(plan);
+                case GENERATED_ID -> {}
+            }
+        }
+    }
+
+    public Class<?> type() { return type; }
+
+    public Object newInstance() throws Exception {
+        if (constructor == null) throw new NoSuchMethodException(type.getName() + ".<init>()");
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    public List<FieldPlan> fields() { return Collections.unmodifiableList(fields); }
+
+    /** Plain columns filled by the ValueProvider. */
+    public List<FieldPlan> scalars() { return Collections.unmodifiableList(scalars); }
+
+    /** ManyToOne and OneToOne fields, both sides. */
+    public List<FieldPlan> toOne() { return Collections.unmodifiableList(toOne); }
+
+    /** ManyToOne and owning OneToOne fields: the to-one fields with a foreign key column in this entity's table. */
+    public List<FieldPlan> references() { return Collections.unmodifiableList(references); }
+
+    public List<FieldPlan> oneToMany() { return Collections.unmodifiableList(oneToMany); }
+
+    public List<FieldPlan> manyToMany() { return Collections.unmodifiableList(manyToMany); }
+
+    private static FieldPlan.Kind classify(Field f) {
+        if (f.isAnnotationPresent(jakarta.persistence.Id.class) &&
+                f.isAnnotationPresent(jakarta.persistence.GeneratedValue.class)) return FieldPlan.Kind.GENERATED_ID;
+        if (f.isAnnotationPresent(jakarta.persistence.OneToMany.class)) return FieldPlan.Kind.ONE_TO_MANY;
+        if (f.isAnnotationPresent(jakarta.persistence.ManyToMany.class)) return FieldPlan.Kind.MANY_TO_MANY;
+        if (f.isAnnotationPresent(jakarta.persistence.ManyToOne.class) ||
+                f.isAnnotationPresent(jakarta.persistence.OneToOne.class)) return FieldPlan.Kind.TO_ONE;
+        return FieldPlan.Kind.SCALAR;
+    }
+
+    private static MethodHandle constructorHandle(Class<?> type) {
+        try {
+            Constructor<?> ctor = type.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/** One persistent field of an {@link EntityPlan}, classified once and accessed through method handles. */
+public final class FieldPlan {
+
+    public enum Kind { GENERATED_ID, SCALAR, TO_ONE, ONE_TO_MANY, MANY_TO_MANY }
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Field field;
+    private final Kind kind;
+    private final Class<?> target;
+    private final String mappedBy;
+    private final boolean optional;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    private final MethodHandle primitiveSetter;
+
+    FieldPlan(Field field, Kind kind) throws IllegalAccessException {
+        field.setAccessible(true);
+        this.field = field;
+        this.kind = kind;
+        this.target = switch (kind) {
+            case TO_ONE -> field.getType();
+            case ONE_TO_MANY, MANY_TO_MANY -> ReflectionUtils.extractGenericListType(field);
+            default -> null;
+        };
+        this.mappedBy = mappedBy(field);
+        this.optional = optional(field);
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        this.getter = lookup.unreflectGetter(field).asType(GETTER);
+        this.setter = lookup.unreflectSetter(field).asType(SETTER);
+        this.primitiveSetter = field.getType().isPrimitive()
+                ? lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, field.getType()))
+                : null;
+    }
+
+    public Field field() { return field; }
+
+    public Kind kind() { return kind; }
+
+    public String name() { return field.getName(); }
+
+    public Class<?> type() { return field.getType(); }
+
+    /** Referenced entity for relationships (collection element type for to-many), null otherwise. */
+    public Class<?> target() { return target; }
+
+    /** False for the inverse (mappedBy) side of a relationship. */
+    public boolean isOwning() { return mappedBy.isEmpty(); }
+
+    public String mappedBy() { return mappedBy; }
+
+    /** False when the mapping forbids NULL: optional = false on the association or nullable = false on its join column. */
+    public boolean isOptional() { return optional; }
+
+    public Object get(Object instance) {
+        try {
+            return (Object) getter.invokeExact(instance);
+        } catch (Throwable t) {
+            throw new IllegalStateException("cannot read " + field, t);
+        }
+    }
+
+    public void set(Object instance, Object value) {
+        try {
+            setter.invokeExact(instance, value);
+        } catch (Throwable t) {
+            throw new IllegalStateException("cannot write " + field, t);
+        }
+    }
+
+    // unboxed writes; only valid when type() is the matching primitive
+
+    public void setInt(Object instance, int value) {
+        try {
+            primitiveSetter.invokeExact(instance, value);
+        } catch (Throwable t) {
+            throw new IllegalStateException("cannot write " + field, t);
+        }
+    }
+
+    public void setLong(Object instance, long value) {
+        try {
+            primitiveSetter.invokeExact(instance, value);
+        } catch (Throwable t) {
+            throw new IllegalStateException("cannot write " + field, t);
+        }
+    }
+
+    public void setDouble(Object instance, double value) {
+        try {
+            primitiveSetter.invokeExact(instance, value);
+        } catch (Throwable t) {
+            throw new IllegalStateException("cannot write " + field, t);
+        }
+    }
+
+    public void setBoolean(Object instance, boolean value) {
+        try {
+            primitiveSetter.invokeExact(instance, value);
+        } catch (Throwable t) {
+            throw new IllegalStateException("cannot write " + field, t);
+        }
+    }
+
+    private static boolean optional(Field f) {
+        jakarta.persistence.ManyToOne mto = f.getAnnotation(jakarta.persistence.ManyToOne.class);
+        if (mto != null && !mto.optional()) return false;
+        jakarta.persistence.OneToOne oto = f.getAnnotation(jakarta.persistence.OneToOne.class);
+        if (oto != null && !oto.optional()) return false;
+        jakarta.persistence.JoinColumn jc = f.getAnnotation(jakarta.persistence.JoinColumn.class);
+        return jc == null || jc.nullable();
+    }
+
+    private static String mappedBy(Field f) {
+        jakarta.persistence.OneToOne oto = f.getAnnotation(jakarta.persistence.OneToOne.class);
+        if (oto != null) return oto.mappedBy();
+        jakarta.persistence.OneToMany otm = f.getAnnotation(jakarta.persistence.OneToMany.class);
+        if (otm != null) return otm.mappedBy();
+        jakarta.persistence.ManyToMany mtm = f.getAnnotation(jakarta.persistence.ManyToMany.class);
+        if (mtm != null) return mtm.mappedBy();
+        return "";
+    }
+}
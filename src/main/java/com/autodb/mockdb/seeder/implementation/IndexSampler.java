@@ -0,0 +1,29 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import java.util.random.RandomGenerator;
+
+final class IndexSampler {
+
+    private IndexSampler() {}
+
+    /**
+     * k distinct indices from [0, n) by Floyd's algorithm: k draws and no copy or shuffle of the pool.
+     * Membership is a linear scan, which beats hashing for the handful of links a row gets.
+     */
+    static int[] distinct(RandomGenerator rnd, int n, int k) {
+        k = Math.min(k, n);
+        int[] picked = new int[k];
+        int size = 0;
+        for (int j = n - k; j < n; j++) {
+            int t = rnd.nextInt(j + 1);
+            picked[size] = contains(picked, size, t) ? j : t;
+            size++;
+        }
+        return picked;
+    }
+
+    private static boolean contains(int[] values, int size, int v) {
+        for (int i = 0; i < size; i++) if (values[i] == v) return true;
+        return false;
+    }
+}
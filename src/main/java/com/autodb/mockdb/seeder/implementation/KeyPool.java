@@ -0,0 +1,74 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Primary keys of the rows written for one entity. Integer and Long keys are stored unboxed
+ * in a growing long[], anything else falls back to a plain list.
+ */
+public class KeyPool {
+
+    private long[] keys;
+    private List<Object> objects;
+    private boolean intKeys;
+    private int size;
+
+    public KeyPool() {
+        this(64);
+    }
+
+    public KeyPool(int capacity) {
+        this.keys = new long[Math.max(1, capacity)];
+    }
+
+    public void add(Object id) {
+        if (size == 0 && objects == null) {
+            intKeys = id instanceof Integer;
+            if (!intKeys && !(id instanceof Long)) objects = new ArrayList<>();
+        }
+        if (objects != null) {
+            objects.add(id);
+        } else {
+            if (size == keys.length) keys = Arrays.copyOf(keys, size * 2);
+            keys[size] = ((Number) id).longValue();
+        }
+        size++;
+    }
+
+    public Object get(int i) {
+        if (objects != null) return objects.get(i);
+        return intKeys ? (Object) (int) keys[i] : (Object) keys[i];
+    }
+
+    public Object random(RandomGenerator rnd) {
+        return get(rnd.nextInt(size));
+    }
+
+    /** Order the keys ascending; keys that are not Comparable keep insertion order. */
+    public void sort() {
+        sort(0);
+    }
+
+    /** Order the keys from position `from` on, leaving the ones before it where they are. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void sort(int from) {
+        if (objects == null) {
+            Arrays.sort(keys, from, size);
+        } else if (objects.stream().allMatch(o -> o instanceof Comparable)) {
+            objects.subList(from, size).sort((a, b) -> ((Comparable) a).compareTo(b));
+        }
+    }
+
+    public List<Object> slice(int from, int to) {
+        List<Object> res = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) res.add(get(i));
+        return res;
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+}
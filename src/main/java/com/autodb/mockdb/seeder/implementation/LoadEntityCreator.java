@@ -0,0 +1,90 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.metrics.SeedingMetrics;
+import com.autodb.mockdb.provider.ValueProvider;
+import com.autodb.mockdb.writer.EntityWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rows for the load generator: appends batches to the key pools of a chunked run from several threads at once.
+ * The pools start out with the keys already in the tables, and row indexes continue after them, so new rows
+ * reference existing ones and unique generators do not repeat their values.
+ */
+public class LoadEntityCreator extends StreamingEntityCreator {
+
+    private final Map<Class<?>, AtomicInteger> next = new ConcurrentHashMap<>();
+    private List<Class<?>> order;
+
+    public LoadEntityCreator(EntityManager em, MockDbProperties props, ValueProvider provider,
+                             EntityWriter writer, TransactionTemplate tx, SeedingMetrics metrics) {
+        super(em, props, provider, writer, tx, metrics);
+    }
+
+    /** A creator writing through the configured engine, one transaction per batch. */
+    public static LoadEntityCreator create(EntityManager em, MockDbProperties props, ValueProvider provider,
+                                           TransactionTemplate tx, SeedingMetrics metrics) {
+        return new LoadEntityCreator(em, props, provider, MockDbSeeder.writer(em, props, metrics), tx, metrics);
+    }
+
+    /** Every entity in dependency order, with the rows already in its table loaded as reference targets. */
+    public synchronized List<Class<?>> prepare() {
+        if (order == null) {
+            List<Class<?>> entities = plan().order();
+            for (Class<?> cls : entities) next.put(cls, new AtomicInteger(getKeyPools().get(cls).size()));
+            order = entities;
+        }
+        return order;
+    }
+
+    @Override
+    protected boolean keepsExistingRows() {
+        return true;
+    }
+
+    /**
+     * Whether new rows of `cls` can be linked to their parents: a NOT NULL reference, or one to an entity in
+     * `loaded`, waits until its target has a row. References that close a cycle are inserted as NULL and stay so.
+     */
+    public boolean ready(Class<?> cls, Set<Class<?>> loaded) {
+        for (FieldPlan f : EntityPlan.of(cls).references()) {
+            if (f.target() == cls || isCycleEdge(cls, f)) continue;
+            if ((!f.isOptional() || loaded.contains(f.target())) && referenceable(f.target()) == 0) return false;
+        }
+        return true;
+    }
+
+    /** Insert `rows` new rows of `cls` in one transaction and return how many were committed. */
+    public int write(Class<?> cls, int rows) {
+        int start = next.get(cls).getAndAdd(rows);
+        return writeChunk(cls, start, start + rows, getKeyPools().get(cls));
+    }
+
+    // pools keep growing while other writers read them; writeChunk adds under the same lock
+
+    @Override
+    protected int rowCount(Class<?> cls) {
+        KeyPool pool = getKeyPools().get(cls);
+        if (pool == null) return 0;
+        synchronized (pool) {
+            return pool.size();
+        }
+    }
+
+    @Override
+    protected Object referenceAt(Class<?> target, int position) {
+        KeyPool pool = getKeyPools().get(target);
+        Object id;
+        synchronized (pool) {
+            id = pool.get(position);
+        }
+        return em.getReference(target, id);
+    }
+}
@@ -0,0 +1,70 @@
+package com.autodb.mockdb.seeder.implementation;
+
+/**
+ * Open-addressing set of 64-bit hashes in a single long[], kept at most half full. Zero marks an empty slot,
+ * so a hash of zero is stored as one; a false positive only costs the caller a retry.
+ */
+final class LongHashSet {
+
+    private long[] slots = new long[1024];
+    private int size;
+
+    /** False when `hash` was already present. */
+    synchronized boolean add(long hash) {
+        if (hash == 0) hash = 1;
+        if (2 * (size + 1) > slots.length) grow();
+        if (!insert(slots, hash)) return false;
+        size++;
+        return true;
+    }
+
+    /** False when `hash` was not present. Later entries of the probe run move back into the freed slot. */
+    synchronized boolean remove(long hash) {
+        if (hash == 0) hash = 1;
+        int mask = slots.length - 1;
+        int i = home(hash, mask);
+        while (slots[i] != hash) {
+            if (slots[i] == 0) return false;
+            i = (i + 1) & mask;
+        }
+        slots[i] = 0;
+        for (int j = (i + 1) & mask; slots[j] != 0; j = (j + 1) & mask) {
+            int k = home(slots[j], mask);
+            // slots[j] may fill the gap at i unless its home lies cyclically in (i, j]
+            boolean stays = i <= j ? (i < k && k <= j) : (i < k || k <= j);
+            if (stays) continue;
+            slots[i] = slots[j];
+            slots[j] = 0;
+            i = j;
+        }
+        size--;
+        return true;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] next = new long[slots.length * 2];
+        for (long h : slots) {
+            if (h != 0) insert(next, h);
+        }
+        slots = next;
+    }
+
+    private static boolean insert(long[] table, long hash) {
+        int mask = table.length - 1;
+        int i = home(hash, mask);
+        while (table[i] != 0) {
+            if (table[i] == hash) return false;
+            i = (i + 1) & mask;
+        }
+        table[i] = hash;
+        return true;
+    }
+
+    private static int home(long hash, int mask) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
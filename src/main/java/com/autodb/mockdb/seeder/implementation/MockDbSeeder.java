@@ -2,37 +2,235 @@ package com.autodb.mockdb.seeder.implementation;
 
 
 import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.metrics.MeteredEntityWriter;
+import com.autodb.mockdb.metrics.SeedingMetrics;
+import com.autodb.mockdb.metrics.SeedingReport;
 import com.autodb.mockdb.provider.ValueProvider;
 import com.autodb.mockdb.seeder.CollectionPopulatorService;
-import com.autodb.mockdb.seeder.EntityCreatorService;
 import com.autodb.mockdb.seeder.ReferenceResolverService;
 import com.autodb.mockdb.seeder.Seeder;
+import com.autodb.mockdb.seeder.SeedingListener;
+import com.autodb.mockdb.test.TemplateDatabase;
+import com.autodb.mockdb.writer.EntityWriter;
+import com.autodb.mockdb.writer.implementation.JdbcBatchEntityWriter;
+import com.autodb.mockdb.writer.implementation.JpaEntityWriter;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 public class MockDbSeeder implements Seeder {
 
-    private final EntityCreatorService entityCreator;
+    private final EntityManager em;
+    private final MockDbProperties props;
+    private final ValueProvider provider;
+    private final SeedingMetrics metrics;
+    private final EntityCreator entityCreator;
     private final ReferenceResolverService referenceResolver;
     private final CollectionPopulatorService collectionPopulator;
+    private final SnapshotStore snapshots;
+    private final Supplier<Map<Class<?>, KeyPool>> keys;
+    private SeedingListener listener = SeedingListener.NONE;
+    private TemplateDatabase template;
+    private String templateKey;
+    private boolean restored;
 
     public MockDbSeeder(EntityManager em, MockDbProperties props, ValueProvider provider) {
-        EntityCreator creator = new EntityCreator(em, props, provider);
-        this.entityCreator = creator;
-        this.referenceResolver = new ReferenceResolver(em, props, creator.getCreatedEntities());
-        this.collectionPopulator = new CollectionPopulator(em, creator.getCreatedEntities());
+        this(em, props, provider, null, new SeedingMetrics());
+    }
+
+    /** In streaming/parallel mode every chunk is committed through `tx`; without a template chunks share the caller's transaction on one thread. */
+    public MockDbSeeder(EntityManager em, MockDbProperties props, ValueProvider provider, TransactionTemplate tx,
+                        SeedingMetrics metrics) {
+        EntityWriter writer = writer(em, props, metrics);
+        this.em = em;
+        this.props = props;
+        this.provider = provider;
+        this.metrics = metrics;
+        if (props.isChunked()) {
+            StreamingEntityCreator creator = props.getParallelism() > 1 && tx != null
+                    ? new ParallelEntityCreator(em, props, provider, writer, tx, metrics)
+                    : new StreamingEntityCreator(em, props, provider, writer, tx, metrics);
+            this.entityCreator = creator;
+            this.referenceResolver = new StreamingReferenceResolver(em, props, creator);
+            this.collectionPopulator = new StreamingCollectionPopulator(em, props, creator);
+            this.keys = creator::getKeyPools;
+        } else {
+            EntityCreator creator = new EntityCreator(em, props, provider, writer, metrics);
+            this.entityCreator = creator;
+            this.referenceResolver = new ReferenceResolver(em, props, creator.getCreatedEntities(), writer);
+            this.collectionPopulator = new CollectionPopulator(em, props, creator.getCreatedEntities(), writer);
+            this.keys = () -> keysOf(em, creator.getCreatedEntities());
+        }
+        if (props.getSnapshot().isEnabled() && props.isIncremental()) {
+            System.err.println("[mockdb] snapshots are not used in incremental mode, the tables already hold the data");
+        }
+        this.snapshots = props.getSnapshot().isEnabled() && !props.isIncremental()
+                ? new SnapshotStore(em, props, provider, writer, tx) : null;
+        if (snapshots != null) warnUnseeded("snapshots");
+    }
+
+    /** The configured write engine, reporting to `metrics`. */
+    static EntityWriter writer(EntityManager em, MockDbProperties props, SeedingMetrics metrics) {
+        EntityWriter engine;
+        if (props.getWriteEngine() == MockDbProperties.WriteEngine.JDBC_BATCH) {
+            JdbcBatchEntityWriter jdbc = new JdbcBatchEntityWriter(em, props.getBatchSize());
+            jdbc.setRejectionHandler(metrics::failureReason);
+            if (props.isReserveIds()) {
+                boolean concurrent = props.getMode() == MockDbProperties.Mode.ASYNC || props.getLoad().isEnabled();
+                jdbc.reserveIds(props.getIdBlockSize(), concurrent);
+            }
+            engine = jdbc;
+        } else {
+            // em.persist ignores an id set on an IDENTITY entity, the keys can only come from the database
+            if (props.isReserveIds()) System.err.println("[mockdb] reserve-ids needs write-engine=jdbc-batch, ignored");
+            engine = new JpaEntityWriter(em);
+        }
+        return new MeteredEntityWriter(engine, metrics);
+    }
+
+    /** Notified when the run starts, as each entity's rows are written, and when it ends. */
+    public void setListener(SeedingListener listener) {
+        this.listener = listener;
+        entityCreator.setListener(listener);
+    }
+
+    /**
+     * Restore the dataset from `template` when it holds it, instead of seeding; otherwise seed as usual and keep the
+     * result through {@link #saveTemplate()}. Null turns templates off.
+     */
+    public void setTemplate(TemplateDatabase template) {
+        this.template = template;
+        this.templateKey = template == null ? null : SnapshotStore.key(SnapshotStore.entities(em), props, provider);
+        if (template != null) warnUnseeded("templates");
+    }
+
+    // the key leaves a drawn seed out, otherwise no later start could ever match it
+    private void warnUnseeded(String what) {
+        if (props.getSeed() != null) return;
+        System.err.println("[mockdb] WARNING: " + what + " are on without mockdb.seed; the data of the first unseeded run"
+                + " is kept and every later unseeded run reuses it. Set mockdb.seed to choose the dataset.");
     }
 
     @Override
     public void seedAll() throws IllegalAccessException {
+        listener.started();
+        try {
+            run();
+        } catch (IllegalAccessException | RuntimeException | Error e) {
+            listener.failed(e);
+            throw e;
+        }
+    }
 
-        entityCreator.createAll();
+    private void run() throws IllegalAccessException {
+        metrics.start();
 
-        referenceResolver.fixMissingReferences();
+        if (template != null && templateExists()) {
+            stage("template-restore", this::restoreTemplate);
+        } else if (snapshots != null && snapshots.exists()) {
+            stage("snapshot-load", this::loadSnapshot);
+        } else {
+            stage("create", entityCreator::createAll);
 
-        collectionPopulator.populateCollections();
+            stage("references", referenceResolver::fixMissingReferences);
 
-        collectionPopulator.populateManyToManyRelations();
+            stage("collections", collectionPopulator::populateCollections);
+
+            stage("many-to-many", collectionPopulator::populateManyToManyRelations);
+
+            if (snapshots != null) stage("snapshot-save", this::saveSnapshot);
+        }
+
+        SeedingReport report = metrics.finish();
+        System.out.println(report + "\n  engine: " + props.getWriteEngine());
+        listener.finished(report);
+    }
 
+    public SeedingReport getReport() {
+        return metrics.lastReport();
+    }
+
+    private void loadSnapshot() {
+        try {
+            snapshots.load(listener);
+        } catch (IOException e) {
+            throw new IllegalStateException("[mockdb] cannot read snapshot " + snapshots.file() + "; delete it to seed from scratch", e);
+        }
+    }
+
+    // a snapshot is only a cache, failing to write one must not fail the run
+    private void saveSnapshot() {
+        try {
+            snapshots.save(keys.get());
+            System.out.println("[mockdb] saved snapshot " + snapshots.file());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[mockdb] snapshot not saved: " + e.getMessage());
+        }
+    }
+
+    private boolean templateExists() {
+        try {
+            return template.exists(templateKey);
+        } catch (SQLException e) {
+            System.err.println("[mockdb] cannot check for a template, seeding instead: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void restoreTemplate() {
+        try {
+            template.restore(templateKey);
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("[mockdb] cannot restore template " + templateKey + "; delete it to seed from scratch", e);
+        }
+        restored = true;
+        for (Class<?> cls : SnapshotStore.entities(em)) {
+            long rows = em.createQuery("select count(e) from " + em.getMetamodel().entity(cls).getName() + " e", Long.class)
+                    .getSingleResult();
+            listener.entitySeeded(cls, (int) rows);
+        }
+    }
+
+    /**
+     * Keep the seeded dataset as the template for later contexts. Call it once the seeding transaction has committed,
+     * the engine dumps the database from a connection of its own. Does nothing after a restore or without a template.
+     */
+    public void saveTemplate() {
+        if (template == null || restored) return;
+        // a template is only a cache, failing to write one must not fail the run
+        try {
+            template.save(templateKey);
+        } catch (SQLException | IOException | RuntimeException e) {
+            System.err.println("[mockdb] template not saved: " + e.getMessage());
+        }
+    }
+
+    /** Keys of the in-memory rows, in creation order. */
+    private static Map<Class<?>, KeyPool> keysOf(EntityManager em, Map<Class<?>, List<Object>> created) {
+        PersistenceUnitUtil units = em.getEntityManagerFactory().getPersistenceUnitUtil();
+        Map<Class<?>, KeyPool> keys = new HashMap<>();
+        created.forEach((cls, rows) -> {
+            KeyPool pool = new KeyPool();
+            for (Object row : rows) pool.add(units.getIdentifier(row));
+            keys.put(cls, pool);
+        });
+        return keys;
+    }
+
+    private interface Stage {
+        void run() throws IllegalAccessException;
+    }
 
+    private void stage(String name, Stage stage) throws IllegalAccessException {
+        long start = System.nanoTime();
+        stage.run();
+        metrics.stageCompleted(name, System.nanoTime() - start);
     }
 }
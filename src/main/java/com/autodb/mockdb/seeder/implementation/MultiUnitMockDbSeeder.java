@@ -0,0 +1,115 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.metrics.SeedingMetrics;
+import com.autodb.mockdb.metrics.SeedingReport;
+import com.autodb.mockdb.provider.ValueProvider;
+import com.autodb.mockdb.seeder.Seeder;
+import com.autodb.mockdb.seeder.SeedingListener;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seeds several persistence units at once, one thread per unit. Each unit has its own EntityManager, transactions,
+ * settings and metrics, and so its own connections, so startup takes as long as the largest unit instead of the sum.
+ * The listener sees one run: every unit's entities as they are written, then one report over all units.
+ */
+public class MultiUnitMockDbSeeder implements Seeder {
+
+    /** One persistence unit: `em` is a shared EntityManager bound to the transactions of `tx`. */
+    public record Unit(String name, EntityManager em, MockDbProperties props, ValueProvider provider,
+                       TransactionTemplate tx, SeedingMetrics metrics) {}
+
+    private final List<Unit> units;
+    private SeedingListener listener = SeedingListener.NONE;
+
+    public MultiUnitMockDbSeeder(List<Unit> units) {
+        this.units = units;
+    }
+
+    public void setListener(SeedingListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void seedAll() {
+        listener.started();
+        long start = System.nanoTime();
+        System.out.println("[mockdb] seeding " + units.size() + " persistence units: "
+                + units.stream().map(Unit::name).toList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, units.size()), unitFactory());
+        Map<String, Future<SeedingReport>> tasks = new LinkedHashMap<>();
+        try {
+            for (Unit unit : units) tasks.put(unit.name(), executor.submit(() -> seed(unit)));
+            Map<String, SeedingReport> reports = new LinkedHashMap<>();
+            RuntimeException failure = null;
+            // every unit runs to its end, a failure in one does not roll back the others
+            for (Map.Entry<String, Future<SeedingReport>> task : tasks.entrySet()) {
+                try {
+                    reports.put(task.getKey(), task.getValue().get());
+                } catch (ExecutionException e) {
+                    if (failure == null) failure = new IllegalStateException("[mockdb] seeding unit " + task.getKey() + " failed", e.getCause());
+                    else failure.addSuppressed(e.getCause());
+                }
+            }
+            if (failure != null) {
+                listener.failed(failure);
+                throw failure;
+            }
+            SeedingReport report = SeedingReport.combine(reports, Duration.ofNanos(System.nanoTime() - start));
+            System.out.println("[mockdb] " + units.size() + " persistence units seeded in " + report.total().toMillis() + " ms");
+            listener.finished(report);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            IllegalStateException failure = new IllegalStateException("[mockdb] interrupted while seeding", e);
+            listener.failed(failure);
+            throw failure;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Same as a single-unit run: chunked modes commit as they go, otherwise one transaction around the unit. */
+    private SeedingReport seed(Unit unit) throws IllegalAccessException {
+        MockDbSeeder seeder = new MockDbSeeder(unit.em(), unit.props(), unit.provider(),
+                unit.props().isChunked() ? unit.tx() : null, unit.metrics());
+        seeder.setListener(entities());
+        if (unit.props().isChunked()) {
+            seeder.seedAll();
+        } else {
+            unit.tx().execute(status -> {
+                try {
+                    seeder.seedAll();
+                } catch (IllegalAccessException e) {
+                    throw new RuntimeException(e);
+                }
+                return null;
+            });
+        }
+        return seeder.getReport();
+    }
+
+    // start, end and failure are reported once for all units
+    private SeedingListener entities() {
+        return new SeedingListener() {
+            public void entitySeeded(Class<?> type, int rows) {
+                listener.entitySeeded(type, rows);
+            }
+        };
+    }
+
+    private static ThreadFactory unitFactory() {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "mockdb-unit-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.metrics.SeedingMetrics;
+import com.autodb.mockdb.provider.ValueProvider;
+import com.autodb.mockdb.writer.EntityWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seeds one dependency layer at a time, with every chunk of every entity in the layer submitted to a pool of
+ * `mockdb.parallelism` workers. Each worker runs its chunk in its own transaction, so the shared EntityManager
+ * resolves to a separate EntityManager and connection per thread.
+ */
+public class ParallelEntityCreator extends StreamingEntityCreator {
+
+    private final int parallelism;
+    // only touched between layers, workers read it after the executor hand-off
+    private final Set<Class<?>> sealed = new HashSet<>();
+
+    public ParallelEntityCreator(EntityManager em, MockDbProperties props, ValueProvider provider,
+                                 EntityWriter writer, TransactionTemplate tx, SeedingMetrics metrics) {
+        super(em, props, provider, writer, tx, metrics);
+        this.parallelism = Math.max(1, props.getParallelism());
+    }
+
+    @Override
+    public void createAll() {
+        if (!props.isEnabled()) return;
+        int perEntity = props.resolveCount();
+
+        System.out.println("[mockdb] seeding mode=" + props.getLevel() + " count=" + perEntity + " parallelism=" + parallelism + " seed=" + seed);
+
+        List<List<Class<?>>> layers = plan().layers();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, workerFactory());
+        try {
+            for (List<Class<?>> layer : layers) {
+                List<Future<?>> tasks = new ArrayList<>();
+                for (Class<?> cls : layer) tasks.addAll(submitChunks(executor, cls, countFor(cls)));
+                await(tasks);
+                // chunks finish in any order; sorted pools make a pick by position independent of that.
+                // Rows that were already there keep their place in front
+                for (Class<?> cls : layer) getKeyPools().get(cls).sort(existingRows(cls));
+                sealed.addAll(layer);
+                for (Class<?> cls : layer) listener.entitySeeded(cls, rowCount(cls));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Future<?>> submitChunks(ExecutorService executor, Class<?> cls, int count) {
+        KeyPool pool = getKeyPools().computeIfAbsent(cls, k -> new KeyPool());
+        recordDeferred(cls, sealed::contains);
+
+        int chunkSize = Math.max(1, props.getChunkSize());
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int from = pool.size(); from < count; from += chunkSize) {
+            int start = from;
+            int end = Math.min(count, from + chunkSize);
+            tasks.add(executor.submit(() -> writeChunk(cls, start, end, pool)));
+        }
+        return tasks;
+    }
+
+    // classes of the layer being written are still growing on other threads, leave them to the resolver
+    @Override
+    protected int referenceable(Class<?> target) {
+        return sealed.contains(target) ? rowCount(target) : 0;
+    }
+
+    private static void await(List<Future<?>> tasks) {
+        try {
+            for (Future<?> task : tasks) task.get();
+        } catch (ExecutionException e) {
+            tasks.forEach(t -> t.cancel(true));
+            throw new IllegalStateException("[mockdb] seeding worker failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("[mockdb] interrupted while seeding", e);
+        }
+    }
+
+    private static ThreadFactory workerFactory() {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "mockdb-seed-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.config.FanOut;
+import com.autodb.mockdb.util.SeededRandom;
+
+import java.util.Arrays;
+
+/**
+ * Children laid out parent by parent for a OneToMany with a configured fan-out: parent j owns child rows
+ * [offsets[j], offsets[j + 1]). The child count follows from the samples and each child finds its parent by
+ * binary search, so nothing per child is stored.
+ */
+final class ParentAssignment {
+
+    private final int[] offsets;
+
+    private ParentAssignment(int[] offsets) {
+        this.offsets = offsets;
+    }
+
+    /** Sample a child count for each of `parents` rows; draw j comes from row j of `stream`, so the layout is reproducible. */
+    static ParentAssignment of(FanOut fanOut, long stream, int parents) {
+        int[] offsets = new int[parents + 1];
+        for (int j = 0; j < parents; j++) {
+            long next = (long) offsets[j] + fanOut.sample(SeededRandom.random(stream, j), Integer.MAX_VALUE);
+            offsets[j + 1] = (int) Math.min(Integer.MAX_VALUE, next);
+        }
+        return new ParentAssignment(offsets);
+    }
+
+    int total() {
+        return offsets[offsets.length - 1];
+    }
+
+    /** Parent row of child row `child`, or -1 past the last child. */
+    int parentOf(int child) {
+        if (child < 0 || child >= total()) return -1;
+        int i = Arrays.binarySearch(offsets, child);
+        if (i < 0) return -i - 2;
+        // parents with no children share an offset with the next one; the owner is the last of them
+        while (i + 1 < offsets.length && offsets[i + 1] == child) i++;
+        return i;
+    }
+}
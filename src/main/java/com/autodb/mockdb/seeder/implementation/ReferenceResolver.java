@@ -1,52 +1,61 @@
 package com.autodb.mockdb.seeder.implementation;
 import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.config.ReferenceDistribution;
 import com.autodb.mockdb.seeder.ReferenceResolverService;
+import com.autodb.mockdb.util.SeededRandom;
+import com.autodb.mockdb.writer.EntityWriter;
 import jakarta.persistence.EntityManager;
-import com.autodb.mockdb.util.ReflectionUtils;
 
-import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 
 public class ReferenceResolver implements ReferenceResolverService {
 
     private final EntityManager em;
     private final MockDbProperties props;
     private final Map<Class<?>, List<Object>> created;
-    private final Random rnd = new Random();
+    private final EntityWriter writer;
+    private final long seed;
+    private final ReferenceSampler.Cache samplers = new ReferenceSampler.Cache();
 
-    public ReferenceResolver(EntityManager em, MockDbProperties props, Map<Class<?>, List<Object>> created) {
+    public ReferenceResolver(EntityManager em, MockDbProperties props, Map<Class<?>, List<Object>> created, EntityWriter writer) {
         this.em = em;
         this.props = props;
         this.created = created;
+        this.writer = writer;
+        this.seed = props.resolveSeed();
     }
 
+    /**
+     * Fills every to-one field still NULL after creation (cycle edges, self references of the first rows),
+     * one field at a time so each field goes out as a single batched UPDATE.
+     */
     @Override
     public void fixMissingReferences() throws IllegalAccessException {
         for (Map.Entry<Class<?>, List<Object>> e : created.entrySet()) {
             Class<?> cls = e.getKey();
             List<Object> instances = e.getValue();
-            for (Object inst : instances) {
-                for (Field f : ReflectionUtils.getAllFields(cls)) {
-                    if (f.isAnnotationPresent(jakarta.persistence.ManyToOne.class) ||
-                            f.isAnnotationPresent(jakarta.persistence.OneToOne.class)) {
-
-                        f.setAccessible(true);
-                        if (f.get(inst) == null) {
-                            Class<?> target = f.getType();
-                            List<Object> pool = created.get(target);
-                            if (pool == null || pool.isEmpty()) {
-                                new EntityCreator(em, props, null).createAll();
-                                pool = created.get(target);
-                            }
-                            if (!pool.isEmpty()) f.set(inst, pool.get(rnd.nextInt(pool.size())));
-                        }
+            for (FieldPlan f : EntityPlan.of(cls).references()) {
+                List<Object> pool = created.get(f.target());
+                if (pool == null || pool.isEmpty()) {
+                    if (!f.isOptional()) {
+                        System.err.println("[mockdb] " + cls.getSimpleName() + "." + f.name() + " is not nullable but no "
+                                + f.target().getSimpleName() + " rows were created");
                     }
+                    continue;
+                }
+                long stream = SeededRandom.stream(seed, cls, f.name());
+                ReferenceDistribution distribution = props.referenceDistribution(cls, f.name());
+                boolean updated = false;
+                for (int row = 0; row < instances.size(); row++) {
+                    Object inst = instances.get(row);
+                    if (f.get(inst) != null) continue;
+                    f.set(inst, pool.get(samplers.pick(distribution, pool.size(), SeededRandom.random(stream, row))));
+                    writer.updateReference(cls, f.field(), inst);
+                    updated = true;
                 }
+                if (updated) writer.flush();
             }
         }
-        em.flush();
-
     }
 }
@@ -0,0 +1,134 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.config.ReferenceDistribution;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks a position in a target pool under a {@link ReferenceDistribution}, in O(1) per pick.
+ * A Zipf sampler holds Vose's alias table over a power-of-two capacity, one int and one float per rank, and
+ * redraws ranks past the pool's current size, which leaves exact Zipf weights over the ranks that exist; a pool
+ * that grows while it is referenced (self references) rebuilds only when it doubles. The hot set needs no table.
+ * Popularity ranks are spread over the pool by a multiplicative permutation of [0, size), so the hottest rows
+ * are not simply the first ones written.
+ */
+final class ReferenceSampler {
+
+    private record Stride(int size, long stride) {}
+
+    private final int capacity;
+    private final float[] prob;
+    private final int[] alias;
+    private final double hotFraction;
+    private final double hotShare;
+    private volatile Stride stride = new Stride(0, 1);
+
+    private ReferenceSampler(int capacity, float[] prob, int[] alias, double hotFraction, double hotShare) {
+        this.capacity = capacity;
+        this.prob = prob;
+        this.alias = alias;
+        this.hotFraction = hotFraction;
+        this.hotShare = hotShare;
+    }
+
+    static ReferenceSampler of(ReferenceDistribution d, int capacity) {
+        return switch (d.getDistribution()) {
+            case UNIFORM -> new ReferenceSampler(capacity, null, null, 0, 0);
+            case ZIPF -> zipf(capacity, d.getExponent());
+            case HOT_SET -> new ReferenceSampler(capacity, null, null, Math.max(0, Math.min(1, d.getHotFraction())),
+                    Math.max(0, Math.min(1, d.getHotShare())));
+        };
+    }
+
+    /** Smallest power of two holding `size` rows. */
+    static int capacity(int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    /** A position below `size`, which must not exceed the capacity; ranks below size carry at least half the weight, so redraws stay short. */
+    int sample(RandomGenerator rnd, int size) {
+        int rank;
+        if (prob != null) {
+            do {
+                int i = rnd.nextInt(capacity);
+                rank = rnd.nextFloat() < prob[i] ? i : alias[i];
+            } while (rank >= size);
+        } else if (hotFraction > 0) {
+            int hot = (int) Math.max(1, Math.min(size, Math.round(hotFraction * size)));
+            rank = hot == size || rnd.nextDouble() < hotShare ? rnd.nextInt(hot) : hot + rnd.nextInt(size - hot);
+        } else {
+            return rnd.nextInt(size);
+        }
+        return (int) (rank * strideFor(size) % size);
+    }
+
+    /** Vose's alias method over weights 1/(k+1)^s; the worklist keeps small entries at the front, large at the back. */
+    private static ReferenceSampler zipf(int n, double exponent) {
+        double[] scaled = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) sum += scaled[k] = Math.pow(k + 1, -exponent);
+        int[] work = new int[n];
+        int small = 0, large = n;
+        for (int k = 0; k < n; k++) {
+            scaled[k] *= n / sum;
+            if (scaled[k] < 1) work[small++] = k; else work[--large] = k;
+        }
+        float[] prob = new float[n];
+        int[] alias = new int[n];
+        int s = 0;
+        while (s < small && large < n) {
+            int lo = work[s++], hi = work[large];
+            prob[lo] = (float) scaled[lo];
+            alias[lo] = hi;
+            scaled[hi] -= 1 - scaled[lo];
+            if (scaled[hi] < 1) {
+                large++;
+                work[small++] = hi;  // small == large here, so hi stays in its own slot
+            }
+        }
+        // leftovers are 1 up to rounding
+        while (s < small) prob[work[s++]] = 1f;
+        while (large < n) prob[work[large++]] = 1f;
+        return new ReferenceSampler(n, prob, alias, 0, 0);
+    }
+
+    /** The multiplier for a pool of `size`, kept for the size last asked for since a pool grows one row at a time. */
+    private long strideFor(int size) {
+        Stride s = stride;
+        if (s.size() != size) stride = s = new Stride(size, stride(size));
+        return s.stride();
+    }
+
+    /** An odd multiplier near size/phi and coprime with size, so rank -> rank * stride % size is a bijection. */
+    private static long stride(int size) {
+        if (size <= 2) return 1;
+        long stride = (long) (size * 0.6180339887) | 1;
+        while (gcd(stride, size) != 1) stride += 2;
+        return stride;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /** Samplers per (distribution, capacity), shared by every relationship with the same settings. */
+    static final class Cache {
+
+        private record Key(ReferenceDistribution distribution, int capacity) {}
+
+        private final Map<Key, ReferenceSampler> samplers = new ConcurrentHashMap<>();
+
+        /** A position in a pool of `size` rows (size > 0). */
+        int pick(ReferenceDistribution d, int size, RandomGenerator rnd) {
+            if (d.getDistribution() == ReferenceDistribution.Kind.UNIFORM) return rnd.nextInt(size);
+            return samplers.computeIfAbsent(new Key(d, capacity(size)), k -> of(k.distribution(), k.capacity())).sample(rnd, size);
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.config.FanOut;
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.provider.ValueProvider;
+import com.autodb.mockdb.seeder.SeedingListener;
+import com.autodb.mockdb.writer.EntityWriter;
+import com.autodb.mockdb.writer.implementation.JoinTableWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.metamodel.EntityType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Saves a finished dataset to a single binary file and loads it back on later startups instead of seeding again.
+ * The file is named after a hash of the entity model and every setting that shapes the data, so a changed entity
+ * or setting simply misses the cache.
+ * <p>
+ * Layout (big-endian): magic, version, then each entity in insert order with its rows (scalars, then to-one targets),
+ * then the owning to-many links as pairs. Rows get fresh keys on load, so every reference is stored as the row
+ * position of its target, never as a key.
+ */
+public class SnapshotStore {
+
+    private static final int MAGIC = 0x4d4f434b;
+    private static final int VERSION = 1;
+
+    private final EntityManager em;
+    private final MockDbProperties props;
+    private final EntityWriter writer;
+    private final ChunkRunner chunks;
+    private final PersistenceUnitUtil units;
+    private final JoinTableWriter joins;
+    private final Path file;
+
+    public SnapshotStore(EntityManager em, MockDbProperties props, ValueProvider provider, EntityWriter writer,
+                         TransactionTemplate tx) {
+        this.em = em;
+        this.props = props;
+        this.writer = writer;
+        this.chunks = new ChunkRunner(em, writer, tx);
+        this.units = em.getEntityManagerFactory().getPersistenceUnitUtil();
+        this.joins = JoinTableWriter.tryCreate(em, props.getBatchSize());
+        this.file = Path.of(props.getSnapshot().getDirectory()).resolve(key(entities(em), props, provider) + ".mockdb");
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public boolean exists() {
+        return Files.isRegularFile(file);
+    }
+
+    /**
+     * Hash of everything that decides what gets generated: entity fields, provider, seed, counts, entity settings,
+     * fan-out and reference distributions. Only a configured seed counts; one drawn for the run is new every start,
+     * so unseeded runs share one key and reuse the data of the first.
+     */
+    static String key(List<Class<?>> entities, MockDbProperties props, ValueProvider provider) {
+        FanOut fanOut = props.getManyToMany();
+        StringBuilder sb = new StringBuilder()
+                .append(VERSION)
+                .append('|').append(provider == null ? "-" : provider.getClass().getName())
+                .append('|').append(props.getFakerPoolSize())
+                .append('|').append(props.getSeed())
+                .append('|').append(props.resolveCount())
+                .append('|').append(describe(fanOut))
+                .append('|').append(props.getReferences());
+        new TreeMap<>(props.getEntities()).forEach((name, e) -> {
+            sb.append('|').append(name).append('=').append(e.getCount()).append(',').append(e.getRatio()).append(',').append(e.getPer());
+            new TreeMap<>(e.getRelationships()).forEach((field, f) -> sb.append(';').append(field).append('=').append(describe(f)));
+            new TreeMap<>(e.getReferences()).forEach((field, d) -> sb.append(';').append(field).append("->").append(d));
+        });
+        entities.stream().sorted(Comparator.comparing(Class::getName)).forEach(cls -> {
+            sb.append('|').append(cls.getName());
+            for (FieldPlan f : EntityPlan.of(cls).fields()) {
+                sb.append(';').append(f.name()).append(':').append(f.kind()).append(':').append(f.type().getName());
+                if (f.target() != null) sb.append(':').append(f.target().getName());
+            }
+            for (List<FieldPlan> unique : UniqueGuard.constraints(cls)) {
+                sb.append(";unique:").append(unique.stream().map(FieldPlan::name).collect(Collectors.joining(",")));
+            }
+        });
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String describe(FanOut f) {
+        return f.getMin() + "," + f.getMax() + "," + f.getDistribution();
+    }
+
+    // ---- save -------------------------------------------------------------------------------------------------
+
+    /** Write the rows behind `pools` (keys in row order) and their links. Must run after every stage has flushed. */
+    public void save(Map<Class<?>, KeyPool> pools) throws IOException {
+        List<Class<?>> order = DependencyOrderResolver.orderByDependenciesCycleSafe(new ArrayList<>(pools.keySet()));
+        for (Class<?> cls : order) {
+            for (FieldPlan f : EntityPlan.of(cls).scalars()) {
+                if (ValueCodec.of(f.type()) == null) {
+                    throw new IOException("cannot snapshot " + cls.getSimpleName() + "." + f.name() + " of type " + f.type().getName());
+                }
+            }
+        }
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        Positions positions = new Positions(pools);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(order.size());
+            for (Class<?> cls : order) saveRows(out, cls, pools.get(cls), positions);
+            saveLinks(out, order, positions);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void saveRows(DataOutputStream out, Class<?> cls, KeyPool ids, Positions positions) throws IOException {
+        EntityPlan plan = EntityPlan.of(cls);
+        List<FieldPlan> scalars = plan.scalars();
+        List<FieldPlan> toOne = plan.toOne();
+        ValueCodec[] codecs = scalars.stream().map(f -> ValueCodec.of(f.type())).toArray(ValueCodec[]::new);
+
+        ValueCodec.writeString(out, cls.getName());
+        out.writeInt(ids.size());
+        writeNames(out, scalars);
+        writeNames(out, toOne);
+
+        int chunkSize = Math.max(1, props.getChunkSize());
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            int first = from;
+            List<Object> chunkIds = ids.slice(from, Math.min(ids.size(), from + chunkSize));
+            Map<Object, Integer> rows = StreamingReferenceResolver.positions(chunkIds, from);
+            chunks.run(() -> {
+                Object[] ordered = new Object[chunkIds.size()];
+                for (Object inst : chunks.load(cls, chunkIds)) ordered[rows.get(units.getIdentifier(inst)) - first] = inst;
+                try {
+                    for (Object inst : ordered) {
+                        if (inst == null) throw new IllegalStateException(cls.getSimpleName() + " row disappeared while saving the snapshot");
+                        for (int i = 0; i < codecs.length; i++) {
+                            Object value = scalars.get(i).get(inst);
+                            out.writeBoolean(value != null);
+                            if (value != null) codecs[i].write(out, value);
+                        }
+                        for (FieldPlan f : toOne) {
+                            Object ref = f.get(inst);
+                            out.writeInt(ref == null ? -1 : positions.of(f.target(), units.getIdentifier(ref)));
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void saveLinks(DataOutputStream out, List<Class<?>> order, Positions positions) throws IOException {
+        List<Map.Entry<Class<?>, FieldPlan>> links = new ArrayList<>();
+        for (Class<?> cls : order) {
+            EntityPlan plan = EntityPlan.of(cls);
+            Stream.concat(plan.oneToMany().stream(), plan.manyToMany().stream())
+                    .filter(f -> f.isOwning() && f.target() != null && positions.covers(f.target()))
+                    .forEach(f -> links.add(Map.entry(cls, f)));
+        }
+
+        out.writeInt(links.size());
+        for (Map.Entry<Class<?>, FieldPlan> link : links) {
+            Class<?> cls = link.getKey();
+            FieldPlan f = link.getValue();
+            String query = "select s." + chunks.idAttribute(cls) + ", t." + chunks.idAttribute(f.target())
+                    + " from " + chunks.entityName(cls) + " s join s." + f.name() + " t";
+            IntPairs pairs = new IntPairs();
+            chunks.run(() -> {
+                try (Stream<Object[]> rows = em.createQuery(query, Object[].class).getResultStream()) {
+                    rows.forEach(r -> {
+                        int source = positions.of(cls, r[0]);
+                        int target = positions.of(f.target(), r[1]);
+                        // rows that were already in the table before this run are not part of the snapshot
+                        if (source >= 0 && target >= 0) pairs.add(source, target);
+                    });
+                }
+            });
+
+            ValueCodec.writeString(out, cls.getName());
+            ValueCodec.writeString(out, f.name());
+            out.writeInt(pairs.size);
+            for (int i = 0; i < pairs.size; i++) {
+                out.writeInt(pairs.sources[i]);
+                out.writeInt(pairs.targets[i]);
+            }
+        }
+    }
+
+    private static void writeNames(DataOutputStream out, List<FieldPlan> fields) throws IOException {
+        out.writeInt(fields.size());
+        for (FieldPlan f : fields) ValueCodec.writeString(out, f.name());
+    }
+
+    // ---- load -------------------------------------------------------------------------------------------------
+
+    /** Insert every row and link of the snapshot through the configured writer. */
+    public void load(SeedingListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("snapshot too large to map: " + file);
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) throw new IOException("not a mockdb snapshot: " + file);
+
+            Map<String, Class<?>> byName = entities(em).stream().collect(Collectors.toMap(Class::getName, c -> c));
+            Map<Class<?>, KeyPool> pools = new HashMap<>();
+            List<Deferred> deferred = new ArrayList<>();
+            int classes = in.getInt();
+            for (int c = 0; c < classes; c++) {
+                Class<?> cls = loadRows(in, byName, pools, deferred);
+                listener.entitySeeded(cls, pools.get(cls).size());
+            }
+            for (Deferred d : deferred) loadDeferred(d, pools);
+            loadLinks(in, byName, pools);
+
+            System.out.println("[mockdb] loaded snapshot " + file + ": "
+                    + pools.values().stream().mapToInt(KeyPool::size).sum() + " rows in " + classes + " entities");
+        }
+    }
+
+    /** To-one targets whose entity comes later in insert order (cycles), set once everything is in. */
+    private record Deferred(Class<?> cls, FieldPlan field, int[] targets) {}
+
+    private Class<?> loadRows(ByteBuffer in, Map<String, Class<?>> byName, Map<Class<?>, KeyPool> pools,
+                          List<Deferred> deferred) throws IOException {
+        Class<?> cls = entity(byName, ValueCodec.readString(in));
+        int rowCount = in.getInt();
+        EntityPlan plan = EntityPlan.of(cls);
+        FieldPlan[] scalars = readFields(in, plan, plan.scalars());
+        FieldPlan[] toOne = readFields(in, plan, plan.toOne());
+        ValueCodec[] codecs = Arrays.stream(scalars).map(f -> ValueCodec.of(f.type())).toArray(ValueCodec[]::new);
+
+        KeyPool pool = new KeyPool();
+        int[][] pending = new int[toOne.length][];
+        int chunkSize = Math.max(1, props.getChunkSize());
+        int batchSize = Math.max(1, props.getBatchSize());
+        for (int from = 0; from < rowCount; from += chunkSize) {
+            int first = from;
+            int end = Math.min(rowCount, from + chunkSize);
+            chunks.run(() -> {
+                List<Object> built = new ArrayList<>(end - first);
+                for (int r = first; r < end; r++) {
+                    Object inst = newInstance(plan);
+                    for (int i = 0; i < scalars.length; i++) {
+                        if (in.get() != 0) scalars[i].set(inst, codecs[i].read(in));
+                    }
+                    for (int j = 0; j < toOne.length; j++) {
+                        int target = in.getInt();
+                        if (target < 0) continue;
+                        KeyPool targetPool = pools.get(toOne[j].target());
+                        if (targetPool != null) {
+                            toOne[j].set(inst, em.getReference(toOne[j].target(), targetPool.get(target)));
+                        } else {
+                            if (pending[j] == null) {
+                                pending[j] = new int[rowCount];
+                                Arrays.fill(pending[j], -1);
+                            }
+                            pending[j][r] = target;
+                        }
+                    }
+                    built.add(inst);
+                }
+                List<Object> written = new ArrayList<>(built.size());
+                for (int i = 0; i < built.size(); i += batchSize) {
+                    written.addAll(writer.insert(cls, built.subList(i, Math.min(built.size(), i + batchSize))));
+                }
+                // positions in the pool must line up with the snapshot, a skipped row would shift every reference
+                if (written.size() != built.size()) {
+                    throw new IllegalStateException("[mockdb] " + (built.size() - written.size()) + " " + cls.getSimpleName()
+                            + " rows from the snapshot failed to insert; delete " + file + " to seed from scratch");
+                }
+                writer.flush();
+                for (Object row : written) pool.add(units.getIdentifier(row));
+            });
+        }
+        pools.put(cls, pool);
+        for (int j = 0; j < toOne.length; j++) {
+            if (pending[j] != null) deferred.add(new Deferred(cls, toOne[j], pending[j]));
+        }
+        return cls;
+    }
+
+    private void loadDeferred(Deferred d, Map<Class<?>, KeyPool> pools) {
+        KeyPool ids = pools.get(d.cls());
+        KeyPool targets = pools.get(d.field().target());
+        if (targets == null) return;
+        int chunkSize = Math.max(1, props.getChunkSize());
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Object> chunkIds = ids.slice(from, Math.min(ids.size(), from + chunkSize));
+            Map<Object, Integer> rows = StreamingReferenceResolver.positions(chunkIds, from);
+            chunks.run(() -> {
+                for (Object inst : chunks.load(d.cls(), chunkIds)) {
+                    int target = d.targets()[rows.get(units.getIdentifier(inst))];
+                    if (target >= 0) d.field().set(inst, em.getReference(d.field().target(), targets.get(target)));
+                }
+            });
+        }
+    }
+
+    private void loadLinks(ByteBuffer in, Map<String, Class<?>> byName, Map<Class<?>, KeyPool> pools) throws IOException {
+        int sections = in.getInt();
+        int chunkSize = Math.max(1, props.getChunkSize());
+        for (int s = 0; s < sections; s++) {
+            Class<?> cls = entity(byName, ValueCodec.readString(in));
+            FieldPlan f = field(EntityPlan.of(cls), ValueCodec.readString(in));
+            IntPairs pairs = new IntPairs();
+            int count = in.getInt();
+            for (int i = 0; i < count; i++) pairs.add(in.getInt(), in.getInt());
+
+            KeyPool sources = pools.get(cls);
+            KeyPool targets = pools.get(f.target());
+            if (joins != null && joins.supports(cls, f.field())) {
+                for (int from = 0; from < pairs.size; from += chunkSize) {
+                    int first = from;
+                    int end = Math.min(pairs.size, from + chunkSize);
+                    chunks.run(() -> {
+                        for (int i = first; i < end; i++) {
+                            joins.add(cls, f.field(), sources.get(pairs.sources[i]), targets.get(pairs.targets[i]));
+                        }
+                        joins.flush();
+                    });
+                }
+                continue;
+            }
+
+            // no direct join writer: group the targets by source and let the loaded owners carry the collection
+            int[] offsets = new int[sources.size() + 1];
+            for (int i = 0; i < pairs.size; i++) offsets[pairs.sources[i] + 1]++;
+            for (int i = 0; i < sources.size(); i++) offsets[i + 1] += offsets[i];
+            int[] grouped = new int[pairs.size];
+            int[] next = Arrays.copyOf(offsets, sources.size());
+            for (int i = 0; i < pairs.size; i++) grouped[next[pairs.sources[i]]++] = pairs.targets[i];
+
+            for (int from = 0; from < sources.size(); from += chunkSize) {
+                List<Object> chunkIds = sources.slice(from, Math.min(sources.size(), from + chunkSize));
+                Map<Object, Integer> rows = StreamingReferenceResolver.positions(chunkIds, from);
+                chunks.run(() -> {
+                    for (Object inst : chunks.load(cls, chunkIds)) {
+                        int row = rows.get(units.getIdentifier(inst));
+                        List<Object> selected = new ArrayList<>(offsets[row + 1] - offsets[row]);
+                        for (int i = offsets[row]; i < offsets[row + 1]; i++) {
+                            selected.add(em.getReference(f.target(), targets.get(grouped[i])));
+                        }
+                        f.set(inst, selected);
+                    }
+                });
+            }
+        }
+    }
+
+    private static FieldPlan[] readFields(ByteBuffer in, EntityPlan plan, List<FieldPlan> expected) throws IOException {
+        int n = in.getInt();
+        FieldPlan[] fields = new FieldPlan[n];
+        for (int i = 0; i < n; i++) {
+            fields[i] = field(plan, ValueCodec.readString(in));
+            if (!expected.contains(fields[i])) throw new IOException("snapshot field " + fields[i].name() + " changed role");
+        }
+        return fields;
+    }
+
+    private static FieldPlan field(EntityPlan plan, String name) throws IOException {
+        for (FieldPlan f : plan.fields()) if (f.name().equals(name)) return f;
+        throw new IOException("snapshot field " + plan.type().getSimpleName() + "." + name + " no longer exists");
+    }
+
+    private static Class<?> entity(Map<String, Class<?>> byName, String name) throws IOException {
+        Class<?> cls = byName.get(name);
+        if (cls == null) throw new IOException("snapshot entity " + name + " no longer exists");
+        return cls;
+    }
+
+    private static Object newInstance(EntityPlan plan) {
+        try {
+            return plan.newInstance();
+        } catch (Exception e) {
+            throw new IllegalStateException("cannot instantiate " + plan.type().getName(), e);
+        }
+    }
+
+    static List<Class<?>> entities(EntityManager em) {
+        return em.getMetamodel().getEntities().stream()
+                .map(EntityType::getJavaType)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /** Row position of a key within its entity's pool, built lazily per entity. */
+    private static final class Positions {
+        private final Map<Class<?>, KeyPool> pools;
+        private final Map<Class<?>, Map<Object, Integer>> index = new HashMap<>();
+
+        Positions(Map<Class<?>, KeyPool> pools) {
+            this.pools = pools;
+        }
+
+        boolean covers(Class<?> cls) {
+            return pools.containsKey(cls);
+        }
+
+        /** -1 for keys that are not part of this dataset. */
+        int of(Class<?> cls, Object id) {
+            Map<Object, Integer> byId = index.computeIfAbsent(cls, c -> {
+                KeyPool pool = pools.get(c);
+                Map<Object, Integer> m = new HashMap<>();
+                if (pool != null) for (int i = 0; i < pool.size(); i++) m.put(pool.get(i), i);
+                return m;
+            });
+            Integer pos = byId.get(id);
+            return pos == null ? -1 : pos;
+        }
+    }
+
+    private static final class IntPairs {
+        int[] sources = new int[64];
+        int[] targets = new int[64];
+        int size;
+
+        void add(int source, int target) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+            }
+            sources[size] = source;
+            targets[size] = target;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.config.FanOut;
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.seeder.CollectionPopulatorService;
+import com.autodb.mockdb.util.SeededRandom;
+import com.autodb.mockdb.writer.implementation.JoinTableWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+public class StreamingCollectionPopulator implements CollectionPopulatorService {
+
+    private final EntityManager em;
+    private final MockDbProperties props;
+    private final StreamingEntityCreator creator;
+    private final JoinTableWriter joins;
+    private final long seed;
+
+    public StreamingCollectionPopulator(EntityManager em, MockDbProperties props, StreamingEntityCreator creator) {
+        this.em = em;
+        this.props = props;
+        this.creator = creator;
+        this.joins = JoinTableWriter.tryCreate(em, props.getBatchSize());
+        this.seed = props.resolveSeed();
+    }
+
+    @Override
+    public void populateCollections() {
+        // mapped-by collections are already stored through the children's foreign keys,
+        // re-reading the parents would only rebuild them in memory
+    }
+
+    @Override
+    public void populateManyToManyRelations() {
+        Map<Class<?>, KeyPool> pools = creator.getKeyPools();
+        int chunkSize = Math.max(1, props.getChunkSize());
+        PersistenceUnitUtil units = em.getEntityManagerFactory().getPersistenceUnitUtil();
+
+        for (Map.Entry<Class<?>, KeyPool> entry : pools.entrySet()) {
+            Class<?> cls = entry.getKey();
+            KeyPool ids = entry.getValue();
+
+            for (FieldPlan f : EntityPlan.of(cls).manyToMany()) {
+                if (!f.isOwning()) continue;
+
+                Class<?> targetType = f.target();
+                KeyPool targetPool = targetType == null ? null : pools.get(targetType);
+                if (targetPool == null || targetPool.isEmpty()) continue;
+
+                // straight from the key pools when the join table can be written directly, nothing gets loaded
+                boolean direct = joins != null && joins.supports(cls, f.field());
+                FanOut fanOut = CollectionPopulator.fanOut(props, cls, f);
+                long stream = SeededRandom.stream(seed, cls, f.name());
+                // only new rows get links; existing ones already have theirs and would collide in the join table
+                for (int from = creator.existingRows(cls); from < ids.size(); from += chunkSize) {
+                    creator.chunks().runIsolated(from, Math.min(ids.size(), from + chunkSize), (first, end) -> {
+                        List<Object> chunkIds = ids.slice(first, end);
+                        if (direct) {
+                            joins.discard();  // whatever a rolled-back attempt left queued
+                            for (int j = 0; j < chunkIds.size(); j++) {
+                                Object sourceId = chunkIds.get(j);
+                                for (int i : pickTargets(targetPool, fanOut, SeededRandom.random(stream, first + j))) {
+                                    joins.add(cls, f.field(), sourceId, targetPool.get(i));
+                                }
+                            }
+                            joins.flush();
+                            return null;
+                        }
+                        Map<Object, Integer> rows = StreamingReferenceResolver.positions(chunkIds, first);
+                        for (Object source : creator.chunks().load(cls, chunkIds)) {
+                            RandomGenerator rnd = SeededRandom.random(stream, rows.get(units.getIdentifier(source)));
+                            List<Object> selected = new ArrayList<>();
+                            for (int i : pickTargets(targetPool, fanOut, rnd)) selected.add(em.getReference(targetType, targetPool.get(i)));
+                            f.set(source, selected);
+                        }
+                        return null;
+                    }, done -> {}, (row, error) -> StreamingReferenceResolver.failed(cls, f.name() + " links of row " + row, error));
+                }
+            }
+        }
+    }
+
+    private static int[] pickTargets(KeyPool pool, FanOut fanOut, RandomGenerator rnd) {
+        return IndexSampler.distinct(rnd, pool.size(), fanOut.sample(rnd, pool.size()));
+    }
+}
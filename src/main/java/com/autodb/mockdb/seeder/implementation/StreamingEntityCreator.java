@@ -0,0 +1,169 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.metrics.SeedingMetrics;
+import com.autodb.mockdb.provider.ValueProvider;
+import com.autodb.mockdb.util.Failures;
+import com.autodb.mockdb.writer.EntityWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Creates rows in chunks of `mockdb.chunk-size`, each chunk committed and cleared on its own.
+ * Only primary keys are kept; references are handed out as em.getReference proxies.
+ */
+public class StreamingEntityCreator extends EntityCreator {
+
+    private final ChunkRunner chunks;
+    private final PersistenceUnitUtil units;
+    private final Map<Class<?>, KeyPool> pools = new HashMap<>();
+    private final Map<Class<?>, List<FieldPlan>> deferred = new LinkedHashMap<>();
+    private final Map<Class<?>, Integer> existing = new HashMap<>();
+
+    public StreamingEntityCreator(EntityManager em, MockDbProperties props, ValueProvider provider,
+                                  EntityWriter writer, TransactionTemplate tx, SeedingMetrics metrics) {
+        super(em, props, provider, writer, metrics);
+        this.chunks = new ChunkRunner(em, writer, tx, props.getMaxFailedRows());
+        this.units = em.getEntityManagerFactory().getPersistenceUnitUtil();
+    }
+
+    public Map<Class<?>, KeyPool> getKeyPools() {
+        return pools;
+    }
+
+    /** To-one fields that could not be linked at insert time because the target had no rows yet. */
+    public Map<Class<?>, List<FieldPlan>> getDeferredReferences() {
+        return deferred;
+    }
+
+    /** Rows of `cls` that were in the table before this run; they come first in its key pool. */
+    public int existingRows(Class<?> cls) {
+        return existing.getOrDefault(cls, 0);
+    }
+
+    ChunkRunner chunks() {
+        return chunks;
+    }
+
+    // in incremental mode every pool starts out with the keys already in its table
+    @Override
+    protected DependencyOrderResolver.Plan plan() {
+        DependencyOrderResolver.Plan plan = super.plan();
+        if (keepsExistingRows()) plan.order().forEach(this::loadExisting);
+        return plan;
+    }
+
+    /** Whether rows already in the tables are loaded into the key pools before anything is written. */
+    protected boolean keepsExistingRows() {
+        return props.isIncremental();
+    }
+
+    /** Count the rows already in the table of `cls` and load their keys, ascending, into its pool. */
+    private void loadExisting(Class<?> cls) {
+        if (pools.containsKey(cls)) return;
+        String entity = chunks.entityName(cls);
+        String id = chunks.idAttribute(cls);
+        chunks.run(() -> {
+            long rows = em.createQuery("select count(e) from " + entity + " e", Long.class).getSingleResult();
+            KeyPool pool = new KeyPool((int) Math.min(Integer.MAX_VALUE - 8, Math.max(64, rows)));
+            if (rows > 0) {
+                try (Stream<Object> ids = em.createQuery("select e." + id + " from " + entity + " e order by e." + id, Object.class)
+                        .getResultStream()) {
+                    ids.forEach(pool::add);
+                }
+                // new rows must not repeat a unique value of the old ones either
+                for (UniqueGuard guard : uniqueGuards(cls, true)) guard.preload(em, entity);
+            }
+            pools.put(cls, pool);
+        });
+        existing.put(cls, pools.get(cls).size());
+        if (existingRows(cls) > 0) System.out.println("[mockdb] " + cls.getSimpleName() + ": " + existingRows(cls) + " rows already present");
+    }
+
+    @Override
+    protected void createInstances(Class<?> cls, int count) {
+        KeyPool pool = pools.computeIfAbsent(cls, k -> new KeyPool());
+        recordDeferred(cls, target -> target != cls && pools.containsKey(target) && !pools.get(target).isEmpty());
+
+        // row indexes continue after the rows already written, so a top-up generates what a full run would have
+        int chunkSize = Math.max(1, props.getChunkSize());
+        for (int from = pool.size(); from < count; from += chunkSize) {
+            int start = from;
+            int end = Math.min(count, from + chunkSize);
+            writeChunk(cls, start, end, pool);
+        }
+    }
+
+    @Override
+    protected int rowCount(Class<?> cls) {
+        KeyPool pool = pools.get(cls);
+        return pool == null ? 0 : pool.size();
+    }
+
+    /** Remember the to-one fields of `cls` whose target is not `linkable` at insert time. */
+    protected void recordDeferred(Class<?> cls, Predicate<Class<?>> linkable) {
+        List<FieldPlan> unresolved = new ArrayList<>();
+        for (FieldPlan f : EntityPlan.of(cls).references()) {
+            if (!linkable.test(f.target()) || isCycleEdge(cls, f)) unresolved.add(f);
+        }
+        if (!unresolved.isEmpty()) deferred.put(cls, unresolved);
+    }
+
+    /**
+     * Write rows [start, end) of `cls` in their own transaction and add their keys to `pool` once committed.
+     * If the chunk fails, the rows that cause it are found by bisection, recorded and skipped.
+     * Returns the number of rows committed.
+     */
+    protected int writeChunk(Class<?> cls, int start, int end, KeyPool pool) {
+        int[] committed = new int[1];
+        // attempts run one after another on this thread, each with the unique values it took
+        ChunkRunner.RangeWork<List<Object>> work = new ChunkRunner.RangeWork<>() {
+            UniqueGuard.Claims claims;
+
+            public List<Object> run(int from, int to) {
+                claims = new UniqueGuard.Claims();
+                return createChunk(cls, from, to, claims);
+            }
+
+            public void rolledBack() {
+                claims.release();
+            }
+        };
+        chunks.runIsolated(start, end, work, ids -> {
+            synchronized (pool) {
+                ids.forEach(pool::add);
+            }
+            committed[0] += ids.size();
+        }, (row, error) -> {
+            String reason = "row " + row + ": " + Failures.describe(error);
+            System.err.println("[mockdb] skipped " + cls.getSimpleName() + " " + reason);
+            metrics.rowFailed(cls, reason);
+        });
+        return committed[0];
+    }
+
+    /** Build and write rows [start, end) of `cls`; runs inside a chunk so the ids are read before the context is cleared. */
+    private List<Object> createChunk(Class<?> cls, int start, int end, UniqueGuard.Claims claims) {
+        List<Object> written = new ArrayList<>(end - start);
+        try {
+            createRange(cls, start, end, written, claims);
+            writer.flush();
+        } catch (RuntimeException e) {
+            metrics.rowsRolledBack(cls, written.size());
+            throw e;
+        }
+        List<Object> ids = new ArrayList<>(written.size());
+        for (Object row : written) ids.add(units.getIdentifier(row));
+        return ids;
+    }
+
+    @Override
+    protected Object referenceAt(Class<?> target, int position) {
+        return em.getReference(target, pools.get(target).get(position));
+    }
+}
@@ -0,0 +1,72 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.seeder.ReferenceResolverService;
+import com.autodb.mockdb.util.Failures;
+import com.autodb.mockdb.util.SeededRandom;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Fills the deferred to-one references chunk by chunk, loading only the rows that may have gaps. */
+public class StreamingReferenceResolver implements ReferenceResolverService {
+
+    private final EntityManager em;
+    private final MockDbProperties props;
+    private final StreamingEntityCreator creator;
+    private final long seed;
+    private final ReferenceSampler.Cache samplers = new ReferenceSampler.Cache();
+
+    public StreamingReferenceResolver(EntityManager em, MockDbProperties props, StreamingEntityCreator creator) {
+        this.em = em;
+        this.props = props;
+        this.creator = creator;
+        this.seed = props.resolveSeed();
+    }
+
+    @Override
+    public void fixMissingReferences() {
+        Map<Class<?>, KeyPool> pools = creator.getKeyPools();
+        int chunkSize = Math.max(1, props.getChunkSize());
+        PersistenceUnitUtil units = em.getEntityManagerFactory().getPersistenceUnitUtil();
+
+        for (Map.Entry<Class<?>, List<FieldPlan>> e : creator.getDeferredReferences().entrySet()) {
+            Class<?> cls = e.getKey();
+            KeyPool ids = pools.get(cls);
+            // rows that were already in the table have their references
+            for (int from = creator.existingRows(cls); from < ids.size(); from += chunkSize) {
+                // a row whose update is refused keeps its NULLs, the rest of the chunk is retried without it
+                creator.chunks().runIsolated(from, Math.min(ids.size(), from + chunkSize), (first, end) -> {
+                    List<Object> chunkIds = ids.slice(first, end);
+                    Map<Object, Integer> rows = positions(chunkIds, first);
+                    for (Object inst : creator.chunks().load(cls, chunkIds)) {
+                        int row = rows.get(units.getIdentifier(inst));
+                        for (FieldPlan f : e.getValue()) {
+                            if (f.get(inst) != null) continue;
+                            KeyPool target = pools.get(f.target());
+                            if (target == null || target.isEmpty()) continue;
+                            long stream = SeededRandom.stream(seed, cls, f.name());
+                            int position = samplers.pick(props.referenceDistribution(cls, f.name()), target.size(), SeededRandom.random(stream, row));
+                            f.set(inst, em.getReference(f.target(), target.get(position)));
+                        }
+                    }
+                    return null;
+                }, done -> {}, (row, error) -> failed(cls, "references of row " + row, error));
+            }
+        }
+    }
+
+    static void failed(Class<?> cls, String what, RuntimeException error) {
+        System.err.println("[mockdb] skipped " + cls.getSimpleName() + " " + what + ": " + Failures.describe(error));
+    }
+
+    /** Row index of every id in a chunk; the IN query does not return rows in key order. */
+    static Map<Object, Integer> positions(List<Object> chunkIds, int from) {
+        Map<Object, Integer> rows = new HashMap<>();
+        for (int i = 0; i < chunkIds.size(); i++) rows.put(chunkIds.get(i), from + i);
+        return rows;
+    }
+}
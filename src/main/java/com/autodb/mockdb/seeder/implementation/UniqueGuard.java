@@ -0,0 +1,177 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.util.SeededRandom;
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps one unique constraint of an entity free of duplicates before the rows reach the database. Each row's
+ * value, or tuple of values, is hashed into a {@link LongHashSet}; a repeat is regenerated from another index,
+ * and a row that still collides after {@link #MAX_ATTEMPTS} is rejected instead of failing the flush.
+ * A chunk that is rolled back hands its values back through its {@link Claims}, so a retry of the same rows
+ * sees the guard as it was before the failed attempt.
+ */
+final class UniqueGuard {
+
+    /** Values admitted by one attempt at a chunk, to take back out of their guards if it is rolled back. */
+    static final class Claims {
+
+        private final List<UniqueGuard> guards = new ArrayList<>();
+        private final List<Long> hashes = new ArrayList<>();
+
+        private synchronized void add(UniqueGuard guard, long hash) {
+            guards.add(guard);
+            hashes.add(hash);
+        }
+
+        /** Free every value of the attempt for the rows that are generated next. */
+        synchronized void release() {
+            for (int i = 0; i < hashes.size(); i++) guards.get(i).seen.remove(hashes.get(i));
+            guards.clear();
+            hashes.clear();
+        }
+    }
+
+    static final int MAX_ATTEMPTS = 16;
+    private static final long SEED = 0x9e3779b97f4a7c15L;
+
+    private final List<ColumnBinding> columns;
+    private final long stream;
+    private final LongHashSet seen = new LongHashSet();
+
+    private UniqueGuard(List<ColumnBinding> columns, long stream) {
+        this.columns = columns;
+        this.stream = stream;
+    }
+
+    /**
+     * Scalar fields of every unique constraint on `cls`: @Column(unique = true), an @Id the provider fills, and
+     * @Table(uniqueConstraints). Columns that are not scalars (foreign keys) are left out, which only makes the
+     * remaining ones stricter than the constraint needs.
+     */
+    static List<List<FieldPlan>> constraints(Class<?> cls) {
+        List<FieldPlan> scalars = EntityPlan.of(cls).scalars();
+        List<List<FieldPlan>> out = new ArrayList<>();
+        Map<String, FieldPlan> byColumn = new HashMap<>();
+        for (FieldPlan f : scalars) {
+            Column column = f.field().getAnnotation(Column.class);
+            if ((column != null && column.unique()) || f.field().isAnnotationPresent(Id.class)) out.add(List.of(f));
+            byColumn.put(normalize(column != null && !column.name().isEmpty() ? column.name() : f.name()), f);
+        }
+        Table table = cls.getAnnotation(Table.class);
+        if (table != null) {
+            for (UniqueConstraint uc : table.uniqueConstraints()) {
+                List<FieldPlan> fields = Arrays.stream(uc.columnNames())
+                        .map(name -> byColumn.get(normalize(name)))
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .toList();
+                if (!fields.isEmpty() && !out.contains(fields)) out.add(fields);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Guards for the constraints of `cls` that no collision-free generator already covers, or for all of them
+     * when `all`: a generator only avoids its own values, not those of rows it did not write.
+     */
+    static List<UniqueGuard> of(Class<?> cls, List<ColumnBinding> bindings, long seed, boolean all) {
+        Map<FieldPlan, ColumnBinding> byField = new HashMap<>();
+        for (ColumnBinding b : bindings) byField.put(b.field, b);
+        List<UniqueGuard> guards = new ArrayList<>();
+        for (List<FieldPlan> constraint : constraints(cls)) {
+            List<ColumnBinding> columns = constraint.stream().map(byField::get).filter(Objects::nonNull).toList();
+            // one distinct component already makes the whole tuple distinct
+            if (columns.isEmpty() || (!all && columns.stream().anyMatch(c -> c.distinct))) continue;
+            String name = columns.stream().map(c -> c.field.name()).collect(Collectors.joining(","));
+            guards.add(new UniqueGuard(columns, SeededRandom.stream(seed, cls, "unique:" + name)));
+        }
+        return guards;
+    }
+
+    /** Admit the values already in the table of `entity`, so new rows do not repeat them. */
+    void preload(EntityManager em, String entity) {
+        String select = columns.stream().map(c -> "e." + c.field.name()).collect(Collectors.joining(", "));
+        try (Stream<Object> rows = em.createQuery("select " + select + " from " + entity + " e", Object.class).getResultStream()) {
+            rows.forEach(row -> {
+                Object[] values = row instanceof Object[] tuple ? tuple : new Object[]{row};
+                long h = SEED;
+                for (Object v : values) {
+                    if (v == null) return;
+                    h = mix(h, v);
+                }
+                seen.add(h);
+            });
+        }
+    }
+
+    String describe() {
+        return columns.stream().map(c -> c.field.name()).collect(Collectors.joining(", ", "(", ")"));
+    }
+
+    /**
+     * Admit every row of the batch or regenerate its columns; rows[i] is row index firstIndex + i. Admitted values
+     * are added to `claims` when the batch may still be rolled back, null when it cannot.
+     */
+    void check(List<Object> rows, int firstIndex, BitSet rejected, Claims claims) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rejected.get(i)) continue;
+            Object row = rows.get(i);
+            boolean unique = admit(row, claims);
+            for (int attempt = 1; !unique && attempt <= MAX_ATTEMPTS; attempt++) {
+                int retry = (int) (SeededRandom.at(stream, (long) (firstIndex + i) * MAX_ATTEMPTS + attempt) >>> 33);
+                try {
+                    for (ColumnBinding c : columns) c.field.set(row, c.generator.next(retry));
+                } catch (RuntimeException ex) {
+                    continue;
+                }
+                unique = admit(row, claims);
+            }
+            if (!unique) rejected.set(i);
+        }
+    }
+
+    // a NULL never collides in a unique index
+    private boolean admit(Object row, Claims claims) {
+        long h = SEED;
+        for (ColumnBinding c : columns) {
+            Object v = c.field.get(row);
+            if (v == null) return true;
+            h = mix(h, v);
+        }
+        if (!seen.add(h)) return false;
+        if (claims != null) claims.add(this, h);
+        return true;
+    }
+
+    private static long mix(long h, Object v) {
+        h = (h ^ hash(v)) * 0xbf58476d1ce4e5b9L;
+        return h ^ (h >>> 31);
+    }
+
+    // biased towards false positives: the database may compare strings without case and decimals without scale
+    private static long hash(Object v) {
+        String s = v instanceof String str ? str.toLowerCase(Locale.ROOT)
+                : v instanceof BigDecimal d ? d.stripTrailingZeros().toPlainString()
+                : v.toString();
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static String normalize(String column) {
+        return column.replace("_", "").replace("`", "").replace("\"", "").toLowerCase(Locale.ROOT);
+    }
+}
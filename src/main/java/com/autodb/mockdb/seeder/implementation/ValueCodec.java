@@ -0,0 +1,93 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Date;
+import java.util.UUID;
+
+/** Binary form of one scalar column in a snapshot, chosen once per field type. Values are never null here. */
+interface ValueCodec {
+
+    void write(DataOutputStream out, Object value) throws IOException;
+
+    Object read(ByteBuffer in);
+
+    /** Codec for fields of `type`, or null when snapshots cannot hold it. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static ValueCodec of(Class<?> type) {
+        if (type == String.class) return codec((out, v) -> writeString(out, (String) v), ValueCodec::readString);
+        if (type == Integer.class || type == int.class) return codec((out, v) -> out.writeInt((Integer) v), ByteBuffer::getInt);
+        if (type == Long.class || type == long.class) return codec((out, v) -> out.writeLong((Long) v), ByteBuffer::getLong);
+        if (type == Double.class || type == double.class) return codec((out, v) -> out.writeDouble((Double) v), ByteBuffer::getDouble);
+        if (type == Float.class || type == float.class) return codec((out, v) -> out.writeFloat((Float) v), ByteBuffer::getFloat);
+        if (type == Short.class || type == short.class) return codec((out, v) -> out.writeShort((Short) v), ByteBuffer::getShort);
+        if (type == Byte.class || type == byte.class) return codec((out, v) -> out.writeByte((Byte) v), ByteBuffer::get);
+        if (type == Boolean.class || type == boolean.class) return codec((out, v) -> out.writeBoolean((Boolean) v), in -> in.get() != 0);
+        if (type == BigDecimal.class) {
+            return codec((out, v) -> writeString(out, ((BigDecimal) v).toString()), in -> new BigDecimal(readString(in)));
+        }
+        if (type == BigInteger.class) {
+            return codec((out, v) -> writeString(out, v.toString()), in -> new BigInteger(readString(in)));
+        }
+        if (type == LocalDate.class) return codec((out, v) -> out.writeLong(((LocalDate) v).toEpochDay()), in -> LocalDate.ofEpochDay(in.getLong()));
+        if (type == LocalTime.class) return codec((out, v) -> out.writeLong(((LocalTime) v).toNanoOfDay()), in -> LocalTime.ofNanoOfDay(in.getLong()));
+        if (type == LocalDateTime.class) {
+            return codec((out, v) -> writeString(out, v.toString()), in -> LocalDateTime.parse(readString(in)));
+        }
+        if (type == Instant.class) {
+            return codec((out, v) -> {
+                out.writeLong(((Instant) v).getEpochSecond());
+                out.writeInt(((Instant) v).getNano());
+            }, in -> Instant.ofEpochSecond(in.getLong(), in.getInt()));
+        }
+        if (type == Date.class) return codec((out, v) -> out.writeLong(((Date) v).getTime()), in -> new Date(in.getLong()));
+        if (type == UUID.class) {
+            return codec((out, v) -> {
+                out.writeLong(((UUID) v).getMostSignificantBits());
+                out.writeLong(((UUID) v).getLeastSignificantBits());
+            }, in -> new UUID(in.getLong(), in.getLong()));
+        }
+        if (type.isEnum()) {
+            Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+            return codec((out, v) -> writeString(out, ((Enum<?>) v).name()), in -> Enum.valueOf(enumType, readString(in)));
+        }
+        return null;
+    }
+
+    interface Writer {
+        void write(DataOutputStream out, Object value) throws IOException;
+    }
+
+    interface Reader {
+        Object read(ByteBuffer in);
+    }
+
+    private static ValueCodec codec(Writer writer, Reader reader) {
+        return new ValueCodec() {
+            public void write(DataOutputStream out, Object value) throws IOException { writer.write(out, value); }
+            public Object read(ByteBuffer in) { return reader.read(in); }
+        };
+    }
+
+    // length-prefixed UTF-8; DataOutputStream.writeUTF stops at 64 KB
+
+    static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
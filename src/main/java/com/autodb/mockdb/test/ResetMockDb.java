@@ -0,0 +1,14 @@
+package com.autodb.mockdb.test;
+
+import java.lang.annotation.*;
+
+/**
+ * Restore the seeded template after the annotated test method, or after every test method of the annotated class,
+ * so the next test starts from the pristine dataset. Needs {@code mockdb.template.enabled=true}.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface ResetMockDb {
+}
@@ -0,0 +1,27 @@
+package com.autodb.mockdb.test;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.TestContextAnnotationUtils;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+/** Carries out {@link ResetMockDb}; registered for every Spring test through META-INF/spring.factories. */
+public class ResetMockDbTestExecutionListener extends AbstractTestExecutionListener {
+
+    // after-callbacks run in reverse order: below TransactionalTestExecutionListener (4000) to reset after its rollback
+    @Override
+    public int getOrder() {
+        return 3900;
+    }
+
+    @Override
+    public void afterTestMethod(TestContext testContext) throws Exception {
+        if (!AnnotatedElementUtils.hasAnnotation(testContext.getTestMethod(), ResetMockDb.class)
+                && !TestContextAnnotationUtils.hasAnnotation(testContext.getTestClass(), ResetMockDb.class)) {
+            return;
+        }
+        TemplateDatabase template = testContext.getApplicationContext().getBeanProvider(TemplateDatabase.class).getIfAvailable();
+        if (template == null) throw new IllegalStateException("[mockdb] @ResetMockDb needs mockdb.template.enabled=true");
+        template.reset();
+    }
+}
@@ -0,0 +1,120 @@
+package com.autodb.mockdb.test;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A seeded embedded database kept as the engine's own script dump, so the next test context restores it in one
+ * statement instead of generating the data again. One file per dataset and engine, named after the snapshot key,
+ * so a change to the entities or to the settings that shape the data leads to a new template. H2 and HSQLDB only;
+ * with any other database the seeder keeps seeding as usual.
+ */
+public class TemplateDatabase {
+
+    private enum Engine { H2, HSQLDB, OTHER }
+
+    // server-level statements of an HSQLDB script that the running database already has
+    private static final List<String> HSQLDB_SKIPPED = List.of(
+            "SET DATABASE ", "SET FILES ", "CREATE USER ", "ALTER USER ", "CREATE ROLE ", "GRANT ", "CREATE SCHEMA PUBLIC ");
+
+    private final DataSource dataSource;
+    private final Path directory;
+    private Engine engine;
+    private volatile Path current;
+
+    public TemplateDatabase(DataSource dataSource, Path directory) {
+        this.dataSource = dataSource;
+        this.directory = directory;
+    }
+
+    /** Whether a template of the dataset `key` exists for this engine. */
+    public boolean exists(String key) throws SQLException {
+        return engine() != Engine.OTHER && Files.isRegularFile(file(key));
+    }
+
+    /** Drop everything in the database and load the template of `key` in its place. */
+    public void restore(String key) throws SQLException, IOException {
+        Path file = file(key);
+        long start = System.nanoTime();
+        restore(file);
+        current = file;
+        System.out.println("[mockdb] restored template " + file + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /** Dump the database as the template of `key`; it must hold the committed, fully seeded dataset. */
+    public void save(String key) throws SQLException, IOException {
+        if (engine() == Engine.OTHER) {
+            System.err.println("[mockdb] template databases need H2 or HSQLDB, the seeded data is not kept");
+            return;
+        }
+        Path file = file(key);
+        Files.createDirectories(file.getParent());
+        // the engine writes the dump itself; a temp name that does not exist yet, then one atomic move
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        Files.delete(tmp);
+        try {
+            try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+                st.execute((engine == Engine.H2 ? "SCRIPT TO " : "SCRIPT ") + literal(tmp));
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        current = file;
+        System.out.println("[mockdb] saved template " + file);
+    }
+
+    /** Put the database back to the template it was last restored from or saved to, e.g. after a test method. */
+    public void reset() throws SQLException, IOException {
+        Path file = current;
+        if (file == null) throw new IllegalStateException("[mockdb] no template to reset to, the database was not seeded through one");
+        restore(file);
+    }
+
+    private void restore(Path file) throws SQLException, IOException {
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            c.setAutoCommit(true);
+            if (engine() == Engine.H2) {
+                st.execute("DROP ALL OBJECTS");
+                st.execute("RUNSCRIPT FROM " + literal(file));
+                return;
+            }
+            st.execute("DROP SCHEMA PUBLIC CASCADE");
+            // one statement per line; string values have their line breaks escaped
+            String schema = "PUBLIC";
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank() || HSQLDB_SKIPPED.stream().anyMatch(line::startsWith)) continue;
+                if (line.startsWith("SET SCHEMA ")) schema = line.substring("SET SCHEMA ".length()).trim();
+                if (schema.equals("SYSTEM_LOBS") || line.contains("SYSTEM_LOBS.")) continue;
+                st.execute(line);
+            }
+        }
+    }
+
+    private Path file(String key) throws SQLException {
+        return directory.toAbsolutePath().resolve(key + "." + engine().name().toLowerCase(Locale.ROOT) + ".sql");
+    }
+
+    private synchronized Engine engine() throws SQLException {
+        if (engine == null) {
+            try (Connection c = dataSource.getConnection()) {
+                String product = c.getMetaData().getDatabaseProductName();
+                engine = product.startsWith("H2") ? Engine.H2 : product.startsWith("HSQL") ? Engine.HSQLDB : Engine.OTHER;
+            }
+        }
+        return engine;
+    }
+
+    private static String literal(Path file) {
+        return "'" + file.toAbsolutePath().toString().replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,28 @@
+package com.autodb.mockdb.util;
+
+import java.sql.SQLException;
+
+/** One-line description of a write failure that names what the database objected to. */
+public final class Failures {
+
+    private Failures() {}
+
+    /**
+     * The violated constraint when Hibernate knows it, followed by the first line of the deepest SQL error.
+     * Databases name the column there for NOT NULL, length and type errors.
+     */
+    public static String describe(Throwable error) {
+        String constraint = null;
+        String message = null;
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (constraint == null && t instanceof org.hibernate.exception.ConstraintViolationException cve) {
+                constraint = cve.getConstraintName();
+            }
+            if (t instanceof SQLException || message == null) message = t.getMessage();
+        }
+        if (message == null) message = error.getClass().getSimpleName();
+        int eol = message.indexOf('\n');
+        if (eol >= 0) message = message.substring(0, eol);
+        return constraint == null ? message : "constraint " + constraint + ": " + message;
+    }
+}
@@ -0,0 +1,80 @@
+package com.autodb.mockdb.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * Counter-based randomness: every draw is a pure function of (seed, entity, field, row index), hashed with the
+ * SplitMix64 finalizer. Nothing is shared between calls, so rows can be generated in any order on any thread
+ * and still come out identical for the same `mockdb.seed`.
+ */
+public final class SeededRandom {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final int MASK31 = 0x7fffffff;
+
+    private SeededRandom() {}
+
+    /** Stream id for one column (or relationship) of one entity. Class and field names keep it stable across JVMs. */
+    public static long stream(long seed, Class<?> entity, String name) {
+        return mix(mix(seed ^ hash(entity.getName())) + hash(name));
+    }
+
+    /** Stream id for a named purpose that is not tied to a field. */
+    public static long stream(long seed, String name) {
+        return mix(seed ^ hash(name));
+    }
+
+    /** The 64 random bits for row `index` of `stream`. */
+    public static long at(long stream, long index) {
+        return mix(stream + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    /** A generator owned by the caller, for values that need several draws for one row. */
+    public static SplittableRandom random(long stream, long index) {
+        return new SplittableRandom(at(stream, index));
+    }
+
+    /** Uniform in [0, bound). */
+    public static int nextInt(long stream, long index, int bound) {
+        return (int) (((at(stream, index) >>> 32) * bound) >>> 32);
+    }
+
+    /** Uniform in [0, 1). */
+    public static double nextDouble(long stream, long index) {
+        return (at(stream, index) >>> 11) * 0x1.0p-53;
+    }
+
+    public static boolean nextBoolean(long stream, long index) {
+        return at(stream, index) < 0;
+    }
+
+    /**
+     * A keyed bijection of [0, 2^31): distinct row indexes always give distinct results, so unique columns can be
+     * filled without a collision check. Every step (xor, odd multiply, add, xorshift) is invertible on 31 bits.
+     */
+    public static int permute(long stream, int index) {
+        int x = (index ^ (int) stream) & MASK31;
+        x = (x * 0x2c1b3c6d) & MASK31;
+        x ^= x >>> 15;
+        x = (x * 0x297a2d39 + (int) (stream >>> 32)) & MASK31;
+        x ^= x >>> 13;
+        x = (x * 0x4e5f8b17) & MASK31;
+        return x ^ (x >>> 16);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // FNV-1a over the chars; String.hashCode is only 32 bits
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
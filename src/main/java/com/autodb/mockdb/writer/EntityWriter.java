@@ -0,0 +1,22 @@
+package com.autodb.mockdb.writer;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.List;
+
+public interface EntityWriter {
+    /** Insert a batch of new instances of `entityType`. Returns the rows that were written. */
+    List<Object> insert(Class<?> entityType, List<Object> rows);
+
+    /** Record that the to-one `field` of an already written `row` has been assigned after insert. */
+    void updateReference(Class<?> entityType, Field field, Object row);
+
+    /** Record that the collection `field` of an already written `owner` now holds `targets`. */
+    void link(Class<?> ownerType, Field field, Object owner, Collection<?> targets);
+
+    /** Push every pending statement to the database. */
+    void flush();
+
+    /** Drop every pending statement; called after the transaction they were meant for was rolled back. */
+    default void discard() {}
+}
@@ -0,0 +1,93 @@
+package com.autodb.mockdb.writer.implementation;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contiguous blocks of primary keys for IDENTITY tables, so the JDBC engine writes the ids itself: rows carry their
+ * key before the INSERT and nothing is read back. A block starts above MAX(id) and above every block handed out
+ * before; reservations are serialized in this JVM, so parallel workers never share a key.
+ * The database table is not locked (on MySQL that ends the transaction, elsewhere it would serialize the workers
+ * until commit), so the identity counter is what keeps the application's own inserts out of the block: MySQL,
+ * MariaDB and HSQLDB move it past explicit ids themselves, on PostgreSQL the block is claimed with setval.
+ * The former only move it once the rows are inserted, so an application insert in between can take a reserved key;
+ * they are left out when the application writes alongside us. Claiming the block there would take an ALTER TABLE,
+ * which commits the chunk's transaction.
+ */
+final class IdReservations {
+
+    private enum Counter { AUTOMATIC, POSTGRESQL }
+
+    private record Block(long next, long end) {}
+
+    private final int blockSize;
+    private final boolean concurrent;
+    private final Map<String, Block> blocks = new HashMap<>();
+    private Counter counter;
+    private boolean resolved;
+
+    IdReservations(int blockSize, boolean concurrent) {
+        this.blockSize = Math.max(1, blockSize);
+        this.concurrent = concurrent;
+    }
+
+    /** Whether the database behind `conn` can take explicit ids in an identity column without losing its counter. */
+    synchronized boolean supported(Connection conn) throws SQLException {
+        if (!resolved) {
+            String product = conn.getMetaData().getDatabaseProductName();
+            if (product.startsWith("MySQL") || product.startsWith("MariaDB") || product.startsWith("HSQL")) {
+                if (concurrent) {
+                    System.out.println("[mockdb] id reservation is off on " + product + " while the application inserts too"
+                            + " (async or load mode), identity keys are read back after insert");
+                } else {
+                    counter = Counter.AUTOMATIC;
+                }
+            } else if (product.startsWith("PostgreSQL")) {
+                counter = Counter.POSTGRESQL;
+            } else {
+                System.out.println("[mockdb] id reservation is not supported on " + product + ", identity keys are read back after insert");
+            }
+            resolved = true;
+        }
+        return counter != null;
+    }
+
+    /** The next reserved key of `mapping`'s table, reserving a new block on `conn` when the current one is used up. */
+    synchronized long next(Connection conn, TableMapping mapping) throws SQLException {
+        Block block = blocks.get(mapping.table);
+        if (block == null || block.next() == block.end()) block = reserve(conn, mapping, block == null ? 0 : block.end());
+        blocks.put(mapping.table, new Block(block.next() + 1, block.end()));
+        return block.next();
+    }
+
+    private Block reserve(Connection conn, TableMapping mapping, long previousEnd) throws SQLException {
+        long start = Math.max(previousEnd, query(conn, "select max(" + mapping.idColumn + ") from " + mapping.table) + 1);
+        if (counter == Counter.POSTGRESQL) {
+            String sequence;
+            try (PreparedStatement ps = conn.prepareStatement("select pg_get_serial_sequence(?, ?)")) {
+                ps.setString(1, mapping.table);
+                ps.setString(2, mapping.idColumn);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    sequence = rs.getString(1);
+                }
+            }
+            if (sequence == null) throw new SQLException("no identity sequence behind " + mapping.table + "." + mapping.idColumn);
+            start = Math.max(start, query(conn, "select case when is_called then last_value else last_value - 1 end from " + sequence) + 1);
+            // setval is not transactional: the claim stands even if this chunk rolls back, which only leaves a gap
+            query(conn, "select setval('" + sequence.replace("'", "''") + "', " + (start + blockSize - 1) + ")");
+        }
+        return new Block(start, start + blockSize);
+    }
+
+    private static long query(Connection conn, String sql) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.autodb.mockdb.writer.implementation;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.Type;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/** One parameterised statement and the rows queued for it, bound through Hibernate types and sent with addBatch. */
+class JdbcBatch {
+
+    private final String sql;
+    private final Type[] types;
+    private final List<Object[]> rows = new ArrayList<>();
+
+    JdbcBatch(String sql, Type... types) {
+        this.sql = sql;
+        this.types = types;
+    }
+
+    void add(Object... values) {
+        rows.add(values);
+    }
+
+    boolean isEmpty() {
+        return rows.isEmpty();
+    }
+
+    void clear() {
+        rows.clear();
+    }
+
+    void execute(Connection conn, SharedSessionContractImplementor session, int batchSize) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int queued = 0;
+            for (Object[] row : rows) {
+                for (int i = 0; i < types.length; i++) types[i].nullSafeSet(ps, row[i], i + 1, session);
+                ps.addBatch();
+                if (++queued % batchSize == 0) ps.executeBatch();
+            }
+            if (queued % batchSize != 0) ps.executeBatch();
+        }
+        rows.clear();
+    }
+}
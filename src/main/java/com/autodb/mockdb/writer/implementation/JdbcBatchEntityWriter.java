@@ -0,0 +1,248 @@
+package com.autodb.mockdb.writer.implementation;
+
+import com.autodb.mockdb.util.Failures;
+import com.autodb.mockdb.writer.EntityWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Writes seeded rows with multi-row prepared INSERTs on the transaction's own connection, bypassing the persistence
+ * context; reference updates and links are queued until {@link #flush()}. Unsupported layouts fall back to em.persist.
+ */
+public class JdbcBatchEntityWriter implements EntityWriter {
+
+    // MySQL rejects prepared statements with more placeholders than this
+    private static final int MAX_PARAMETERS = 65_535;
+
+    private final EntityManager em;
+    private final int batchSize;
+    private final MappingMetamodel metamodel;
+    private final PersistenceUnitUtil units;
+    private final Map<Class<?>, Optional<TableMapping>> mappings = new ConcurrentHashMap<>();
+    // only insert is called from several seeding threads; queued updates and links are single-threaded
+    private final Map<String, JdbcBatch> pending = new LinkedHashMap<>();
+    private final JoinTableWriter links;
+    private BiConsumer<Class<?>, String> rejected = (entityType, reason) -> {};
+    private IdReservations reservations;
+
+    public JdbcBatchEntityWriter(EntityManager em, int batchSize) {
+        this.em = em;
+        this.batchSize = Math.max(1, batchSize);
+        this.metamodel = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getMappingMetamodel();
+        this.units = em.getEntityManagerFactory().getPersistenceUnitUtil();
+        this.links = new JoinTableWriter(em, batchSize);
+    }
+
+    /** Told the entity and reason of every row the database refused. */
+    public void setRejectionHandler(BiConsumer<Class<?>, String> rejected) {
+        this.rejected = rejected;
+    }
+
+    /**
+     * Reserve IDENTITY keys `blockSize` at a time above MAX(id), so rows get their key before the INSERT, the id is
+     * written with the row and no generated keys are fetched. Databases that would lose the identity counter keep
+     * reading keys back, and so do those that cannot claim a block up front when `concurrent`, i.e. the application
+     * inserts while we write.
+     */
+    public void reserveIds(int blockSize, boolean concurrent) {
+        this.reservations = new IdReservations(blockSize, concurrent);
+    }
+
+    @Override
+    public List<Object> insert(Class<?> entityType, List<Object> rows) {
+        TableMapping mapping = mapping(entityType);
+        if (mapping == null) return persistFallback(entityType, rows);
+
+        SharedSessionContractImplementor session = em.unwrap(SharedSessionContractImplementor.class);
+        int perStatement = Math.max(1, Math.min(batchSize, MAX_PARAMETERS / Math.max(1, mapping.columnCount(true))));
+        List<Object> written = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += perStatement) {
+            insertIsolated(entityType, session, mapping, rows.subList(from, Math.min(rows.size(), from + perStatement)), written);
+        }
+        return written;
+    }
+
+    /** Insert `slice`; if the database refuses it, bisect down to the rows it refuses and skip only those. */
+    private void insertIsolated(Class<?> entityType, SharedSessionContractImplementor session, TableMapping mapping,
+                                List<Object> slice, List<Object> written) {
+        try {
+            em.unwrap(Session.class).doWork(conn -> insertUnderSavepoint(conn, session, mapping, slice));
+            written.addAll(slice);
+        } catch (RuntimeException ex) {
+            if (slice.size() == 1) {
+                String reason = Failures.describe(ex);
+                System.err.println("[mockdb] " + entityType.getSimpleName() + " row refused: " + reason);
+                rejected.accept(entityType, reason);
+                return;
+            }
+            int mid = slice.size() / 2;
+            insertIsolated(entityType, session, mapping, slice.subList(0, mid), written);
+            insertIsolated(entityType, session, mapping, slice.subList(mid, slice.size()), written);
+        }
+    }
+
+    /**
+     * Insert `slice` under a savepoint and roll back to it when the statement is refused, so the transaction survives
+     * and {@link #insertIsolated} can split the slice; some databases (PostgreSQL) abort the whole transaction otherwise.
+     */
+    private void insertUnderSavepoint(Connection conn, SharedSessionContractImplementor session,
+                                      TableMapping mapping, List<Object> slice) throws SQLException {
+        Savepoint savepoint = conn.getAutoCommit() ? null : conn.setSavepoint();
+        try {
+            insertSlice(conn, session, mapping, slice);
+        } catch (SQLException | RuntimeException ex) {
+            if (savepoint != null) conn.rollback(savepoint);
+            throw ex;
+        }
+        if (savepoint != null) {
+            try {
+                conn.releaseSavepoint(savepoint);
+            } catch (SQLException ignored) {
+                // not every driver supports releasing; the savepoint then lives until commit
+            }
+        }
+    }
+
+    @Override
+    public void updateReference(Class<?> entityType, Field field, Object row) {
+        TableMapping mapping = mapping(entityType);
+        if (mapping == null) return;
+        TableMapping.Column c = mapping.columnForProperty(field.getName());
+        if (c == null || c.target() == null) return;
+
+        Object target = mapping.persister.getValue(row, c.property());
+        String sql = "update " + mapping.table + " set " + c.name() + "=? where " + mapping.idColumn + "=?";
+        pending.computeIfAbsent(sql, k -> new JdbcBatch(k, c.target().getIdentifierType(), mapping.persister.getIdentifierType()))
+                .add(target == null ? null : units.getIdentifier(target), units.getIdentifier(row));
+    }
+
+    @Override
+    public void link(Class<?> ownerType, Field field, Object owner, Collection<?> targets) {
+        if (mapping(ownerType) == null || targets.isEmpty()) return;
+        Object ownerId = units.getIdentifier(owner);
+        for (Object target : targets) links.add(ownerType, field, ownerId, units.getIdentifier(target));
+    }
+
+    @Override
+    public void flush() {
+        em.flush();
+        if (!pending.isEmpty()) {
+            SharedSessionContractImplementor session = em.unwrap(SharedSessionContractImplementor.class);
+            em.unwrap(Session.class).doWork(conn -> {
+                for (JdbcBatch batch : pending.values()) batch.execute(conn, session, batchSize);
+            });
+            pending.clear();
+        }
+        links.flush();
+    }
+
+    @Override
+    public void discard() {
+        pending.clear();
+        links.discard();
+    }
+
+    private TableMapping mapping(Class<?> cls) {
+        return mappings.computeIfAbsent(cls, c -> {
+            TableMapping m = TableMapping.resolve(c, metamodel);
+            if (m == null) System.out.println("[mockdb] jdbc-batch: " + c.getSimpleName() + " is written through JPA");
+            return Optional.ofNullable(m);
+        }).orElse(null);
+    }
+
+    private List<Object> persistFallback(Class<?> entityType, List<Object> rows) {
+        List<Object> written = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            try {
+                em.persist(row);
+                written.add(row);
+            } catch (Exception ex) {
+                System.err.println("[mockdb] failed to create " + entityType.getSimpleName() + ": " + ex.getMessage());
+            }
+        }
+        // rows inserted over JDBC later may reference these
+        em.flush();
+        return written;
+    }
+
+    // only Integer and Long keys fit a block of longs
+    private boolean reservable(Connection conn, AbstractEntityPersister persister) throws SQLException {
+        if (reservations == null) return false;
+        Class<?> idType = persister.getIdentifierType().getReturnedClass();
+        return (idType == Integer.class || idType == Long.class) && reservations.supported(conn);
+    }
+
+    private void insertSlice(Connection conn, SharedSessionContractImplementor session,
+                             TableMapping mapping, List<Object> slice) throws SQLException {
+        AbstractEntityPersister persister = mapping.persister;
+        if (!mapping.idGeneratedOnInsert) {
+            BeforeExecutionGenerator generator = (BeforeExecutionGenerator) persister.getGenerator();
+            for (Object row : slice) {
+                Object id = generator.generate(session, row, persister.getIdentifier(row, session), EventType.INSERT);
+                persister.setIdentifier(row, id, session);
+            }
+        }
+        boolean reserved = mapping.idGeneratedOnInsert && reservable(conn, persister);
+        if (reserved) {
+            // a slice retried after a refused statement keeps the keys it already has; reserved keys start at 1
+            Class<?> idType = persister.getIdentifierType().getReturnedClass();
+            for (Object row : slice) {
+                Object current = persister.getIdentifier(row, session);
+                if (current != null && ((Number) current).longValue() != 0) continue;
+                long id = reservations.next(conn, mapping);
+                persister.setIdentifier(row, idType == Integer.class ? (Object) (int) id : (Object) id, session);
+            }
+        }
+        boolean withId = !mapping.idGeneratedOnInsert || reserved;
+
+        String sql = mapping.insertSql(slice.size(), withId);
+        try (PreparedStatement ps = withId
+                ? conn.prepareStatement(sql)
+                : conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            int idx = 1;
+            for (Object row : slice) {
+                Object[] values = persister.getValues(row);
+                if (withId) {
+                    persister.getIdentifierType().nullSafeSet(ps, persister.getIdentifier(row, session), idx++, session);
+                }
+                for (TableMapping.Column c : mapping.columns) {
+                    Object value = values[c.property()];
+                    if (c.target() == null) {
+                        c.type().nullSafeSet(ps, value, idx++, session);
+                    } else {
+                        c.target().getIdentifierType().nullSafeSet(ps, value == null ? null : units.getIdentifier(value), idx++, session);
+                    }
+                }
+            }
+            ps.executeUpdate();
+
+            if (!withId) {
+                Class<?> idType = persister.getIdentifierType().getReturnedClass();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (Object row : slice) {
+                        if (!keys.next()) break;
+                        persister.setIdentifier(row, keys.getObject(1, idType), session);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.autodb.mockdb.writer.implementation;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.hibernate.persister.collection.CollectionPersister;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+/**
+ * Writes the rows behind owning collection fields straight to the database by primary key, without
+ * loading either side into the persistence context. Table and column names come from Hibernate's collection
+ * mapping, so @JoinTable/@JoinColumn overrides and the naming-strategy defaults are both honoured.
+ * Join tables get INSERTs; unidirectional @OneToMany with a join column gets an UPDATE of the child's key.
+ */
+public class JoinTableWriter {
+
+    private final EntityManager em;
+    private final int batchSize;
+    private final MappingMetamodel metamodel;
+    private final Map<String, Optional<JdbcBatch>> batches = new LinkedHashMap<>();
+
+    public JoinTableWriter(EntityManager em, int batchSize) {
+        this.em = em;
+        this.batchSize = Math.max(1, batchSize);
+        this.metamodel = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getMappingMetamodel();
+    }
+
+    /** Null when the persistence provider is not Hibernate; callers then go through the managed collections. */
+    public static JoinTableWriter tryCreate(EntityManager em, int batchSize) {
+        try {
+            return new JoinTableWriter(em, batchSize);
+        } catch (RuntimeException | LinkageError ex) {
+            return null;
+        }
+    }
+
+    /** Whether links on `field` can be written here; inverse sides, indexed and composite-key collections cannot. */
+    public boolean supports(Class<?> ownerType, Field field) {
+        return batch(ownerType, field) != null;
+    }
+
+    /** Queue one link; the owner and target rows must already be in the database when {@link #flush()} runs. */
+    public void add(Class<?> ownerType, Field field, Object ownerId, Object targetId) {
+        JdbcBatch batch = batch(ownerType, field);
+        if (batch != null) batch.add(ownerId, targetId);
+    }
+
+    public void flush() {
+        if (batches.values().stream().flatMap(Optional::stream).allMatch(JdbcBatch::isEmpty)) return;
+        SharedSessionContractImplementor session = em.unwrap(SharedSessionContractImplementor.class);
+        em.unwrap(Session.class).doWork(conn -> {
+            for (Optional<JdbcBatch> batch : batches.values()) {
+                if (batch.isPresent() && !batch.get().isEmpty()) batch.get().execute(conn, session, batchSize);
+            }
+        });
+    }
+
+    /** Forget every queued link, after the transaction they belonged to was rolled back. */
+    public void discard() {
+        batches.values().forEach(batch -> batch.ifPresent(JdbcBatch::clear));
+    }
+
+    private JdbcBatch batch(Class<?> ownerType, Field field) {
+        String role = metamodel.getEntityDescriptor(ownerType).getEntityName() + "." + field.getName();
+        return batches.computeIfAbsent(role, this::resolve).orElse(null);
+    }
+
+    private Optional<JdbcBatch> resolve(String role) {
+        CollectionPersister cp = metamodel.findCollectionDescriptor(role);
+        if (!(cp instanceof AbstractCollectionPersister acp) || cp.isInverse() || cp.hasIndex()) return Optional.empty();
+        String[] keys = acp.getKeyColumnNames();
+        String[] elements = acp.getElementColumnNames();
+        if (keys.length != 1 || elements.length != 1 || acp.getElementPersister() == null) return Optional.empty();
+
+        String sql = cp.isOneToMany()
+                ? "update " + acp.getTableName() + " set " + keys[0] + "=? where " + elements[0] + "=?"
+                : "insert into " + acp.getTableName() + " (" + keys[0] + "," + elements[0] + ") values (?,?)";
+        return Optional.of(new JdbcBatch(sql,
+                cp.getOwnerEntityPersister().getIdentifierType(),
+                acp.getElementPersister().getIdentifierType()));
+    }
+}
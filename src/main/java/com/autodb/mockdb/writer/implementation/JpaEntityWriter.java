@@ -0,0 +1,44 @@
+package com.autodb.mockdb.writer.implementation;
+
+import com.autodb.mockdb.writer.EntityWriter;
+import jakarta.persistence.EntityManager;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class JpaEntityWriter implements EntityWriter {
+
+    private final EntityManager em;
+
+    public JpaEntityWriter(EntityManager em) {
+        this.em = em;
+    }
+
+    @Override
+    public List<Object> insert(Class<?> entityType, List<Object> rows) {
+        List<Object> written = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            try {
+                em.persist(row);
+                written.add(row);
+            } catch (Exception ex) {
+                System.err.println("[mockdb] failed to create " + entityType.getSimpleName() + ": " + ex.getMessage());
+            }
+        }
+        return written;
+    }
+
+    // managed instances are dirty-checked, nothing to queue
+    @Override
+    public void updateReference(Class<?> entityType, Field field, Object row) {}
+
+    @Override
+    public void link(Class<?> ownerType, Field field, Object owner, Collection<?> targets) {}
+
+    @Override
+    public void flush() {
+        em.flush();
+    }
+}
@@ -0,0 +1,106 @@
+package com.autodb.mockdb.writer.implementation;
+
+import jakarta.persistence.SecondaryTable;
+import jakarta.persistence.SecondaryTables;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.Generator;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Table and column layout of one entity, read from Hibernate's mapping metamodel so that
+ * naming strategies, @Column/@JoinColumn overrides and converters are honoured.
+ */
+class TableMapping {
+
+    record Column(String name, int property, Type type, EntityPersister target) {}
+
+    final AbstractEntityPersister persister;
+    final String table;
+    final String idColumn;
+    final boolean idGeneratedOnInsert;
+    final List<Column> columns;
+
+    private TableMapping(AbstractEntityPersister persister, String idColumn, boolean idGeneratedOnInsert, List<Column> columns) {
+        this.persister = persister;
+        this.table = persister.getTableName();
+        this.idColumn = idColumn;
+        this.idGeneratedOnInsert = idGeneratedOnInsert;
+        this.columns = columns;
+    }
+
+    /** Returns null when the entity uses a layout the JDBC engine does not write (inheritance, composite keys, embeddables...). */
+    static TableMapping resolve(Class<?> cls, MappingMetamodel metamodel) {
+        EntityPersister ep = metamodel.getEntityDescriptor(cls);
+        if (!(ep instanceof AbstractEntityPersister persister)) return null;
+        if (persister.isInherited() || persister.getEntityMetamodel().hasSubclasses()) return null;
+        if (persister.isVersioned()) return null;
+        if (cls.isAnnotationPresent(SecondaryTable.class) || cls.isAnnotationPresent(SecondaryTables.class)) return null;
+
+        String[] idColumns = persister.getIdentifierColumnNames();
+        if (idColumns.length != 1) return null;
+
+        Generator generator = persister.getGenerator();
+        boolean onInsert = generator != null && generator.generatedOnExecution();
+        if (!onInsert && !(generator instanceof BeforeExecutionGenerator)) return null;
+
+        List<Column> columns = new ArrayList<>();
+        Type[] types = persister.getPropertyTypes();
+        boolean[] insertable = persister.getPropertyInsertability();
+        for (int i = 0; i < types.length; i++) {
+            Type type = types[i];
+            if (type.isCollectionType() || !insertable[i]) continue;
+            if (type.isComponentType()) return null;
+
+            String[] names = persister.getPropertyColumnNames(i);
+            if (names.length == 0) continue;
+            if (names.length > 1) return null;
+
+            EntityPersister target = null;
+            if (type instanceof EntityType et) {
+                if (!et.isReferenceToPrimaryKey()) return null;
+                target = metamodel.getEntityDescriptor(et.getAssociatedEntityName());
+            }
+            columns.add(new Column(names[0], i, type, target));
+        }
+        if (onInsert && columns.isEmpty()) return null;
+
+        return new TableMapping(persister, idColumns[0], onInsert, columns);
+    }
+
+    int columnCount(boolean withId) {
+        return columns.size() + (withId ? 1 : 0);
+    }
+
+    /** `withId` writes the id column too, also for an identity whose keys were reserved up front. */
+    String insertSql(int rowCount, boolean withId) {
+        StringBuilder sb = new StringBuilder("insert into ").append(table).append(" (");
+        String row = "(" + String.join(",", Collections.nCopies(columnCount(withId), "?")) + ")";
+        if (withId) sb.append(idColumn).append(columns.isEmpty() ? "" : ",");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(columns.get(i).name());
+        }
+        sb.append(") values ");
+        for (int r = 0; r < rowCount; r++) {
+            if (r > 0) sb.append(',');
+            sb.append(row);
+        }
+        return sb.toString();
+    }
+
+    Column columnForProperty(String propertyName) {
+        String[] names = persister.getPropertyNames();
+        for (Column c : columns) {
+            if (names[c.property()].equals(propertyName)) return c;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,148 @@
+package com.autodb.mockdb;
+
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.metrics.SeedingMetrics;
+import com.autodb.mockdb.metrics.SeedingReport;
+import com.autodb.mockdb.provider.RandomValueProvider;
+import com.autodb.mockdb.seeder.implementation.MockDbSeeder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hibernate on a private in-memory H2 database holding the entities of one model package under
+ * `com.autodb.mockdb.model`. Every instance gets a database of its own, so tests can compare two of them.
+ * {@link #hsqldb} uses HSQLDB instead, for what H2 does not support.
+ */
+public final class TestDatabase implements AutoCloseable {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory emf;
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+
+    private TestDatabase(String model, String url) {
+        this.dataSource = new DriverManagerDataSource(url, "sa", "");
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.autodb.mockdb.model." + model);
+        factory.setPersistenceUnitName(model);
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+        factory.afterPropertiesSet();
+        this.emf = factory.getObject();
+        this.em = SharedEntityManagerCreator.createSharedEntityManager(emf);
+        this.tx = new TransactionTemplate(new JpaTransactionManager(emf));
+    }
+
+    public static TestDatabase open(String model) {
+        return new TestDatabase(model, "jdbc:h2:mem:" + model + DATABASES.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+    }
+
+    public static TestDatabase hsqldb(String model) {
+        return new TestDatabase(model, "jdbc:hsqldb:mem:" + model + DATABASES.incrementAndGet());
+    }
+
+    public EntityManagerFactory emf() {
+        return emf;
+    }
+
+    /** A shared EntityManager bound to the transactions of {@link #tx()}, as the auto-configuration gets it. */
+    public EntityManager em() {
+        return em;
+    }
+
+    public TransactionTemplate tx() {
+        return tx;
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public void inTransaction(Consumer<EntityManager> work) {
+        tx.executeWithoutResult(status -> work.accept(em));
+    }
+
+    /** Seed the way the auto-configuration does: chunked runs commit as they go, others in one transaction. */
+    public SeedingReport seed(MockDbProperties props) {
+        return seed(props, seeder -> {});
+    }
+
+    public SeedingReport seed(MockDbProperties props, Consumer<MockDbSeeder> setup) {
+        MockDbSeeder seeder = new MockDbSeeder(em, props, new RandomValueProvider(props.resolveSeed()),
+                props.isChunked() ? tx : null, new SeedingMetrics());
+        setup.accept(seeder);
+        if (props.isChunked()) {
+            run(seeder);
+        } else {
+            tx.executeWithoutResult(status -> run(seeder));
+        }
+        seeder.saveTemplate();
+        return seeder.getReport();
+    }
+
+    private static void run(MockDbSeeder seeder) {
+        try {
+            seeder.seedAll();
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public long count(String table) {
+        Long rows = new JdbcTemplate(dataSource).queryForObject("select count(*) from " + table, Long.class);
+        return rows == null ? 0 : rows;
+    }
+
+    /** Rows of `table` that other sessions can see, on a connection outside any running transaction. */
+    public long committedCount(String table) {
+        try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("select count(*) from " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Every table of the schema with its rows as strings, sorted, to compare two databases by content. */
+    public Map<String, List<String>> contents() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Map<String, List<String>> tables = new TreeMap<>();
+        for (String table : jdbc.queryForList(
+                "select table_name from information_schema.tables where table_schema = 'PUBLIC'", String.class)) {
+            List<String> rows = new ArrayList<>();
+            jdbc.query("select * from " + table, rs -> {
+                StringJoiner row = new StringJoiner("|");
+                for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) row.add(String.valueOf(rs.getObject(i)));
+                rows.add(row.toString());
+            });
+            Collections.sort(rows);
+            tables.put(table, rows);
+        }
+        return tables;
+    }
+
+    @Override
+    public void close() {
+        emf.close();
+    }
+}
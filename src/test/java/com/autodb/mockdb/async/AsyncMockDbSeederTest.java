@@ -0,0 +1,79 @@
+package com.autodb.mockdb.async;
+
+import com.autodb.mockdb.TestDatabase;
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.metrics.SeedingMetrics;
+import com.autodb.mockdb.metrics.SeedingReport;
+import com.autodb.mockdb.model.shop.Customer;
+import com.autodb.mockdb.model.shop.PurchaseOrder;
+import com.autodb.mockdb.provider.RandomValueProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncMockDbSeederTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(30);
+
+    @Test
+    void statusFollowsTheBackgroundRun() throws Exception {
+        try (TestDatabase db = TestDatabase.open("shop")) {
+            MockDbProperties props = new MockDbProperties();
+            props.setSeed(4L);
+            props.setCount(25);
+            props.setMode(MockDbProperties.Mode.ASYNC);
+            SeedingStatus status = new SeedingStatus();
+            List<SeedingProgressEvent> events = new CopyOnWriteArrayList<>();
+            CompletableFuture<SeedingProgressEvent> lastEvent = new CompletableFuture<>();
+            AsyncMockDbSeeder seeder = new AsyncMockDbSeeder(db.em(), props, new RandomValueProvider(4L),
+                    db.tx().getTransactionManager(), new SeedingMetrics(), status, event -> {
+                        SeedingProgressEvent progress = (SeedingProgressEvent) event;
+                        events.add(progress);
+                        if (progress.getPhase() == SeedingProgressEvent.Phase.FINISHED) lastEvent.complete(progress);
+                    });
+            try {
+                assertThat(status.getState()).isEqualTo(SeedingStatus.State.IDLE);
+                seeder.onApplicationEvent(new ApplicationReadyEvent(new SpringApplication(), new String[0], null, Duration.ZERO));
+
+                assertThat(status.awaitSeeded(PurchaseOrder.class, WAIT)).isEqualTo(25);
+                assertThat(db.committedCount("PurchaseOrder")).isEqualTo(25);
+                SeedingReport report = status.awaitFinished(WAIT);
+                assertThat(status.getState()).isEqualTo(SeedingStatus.State.READY);
+                assertThat(status.isSeeded(Customer.class)).isTrue();
+                // an entity outside the run is never seeded, so waiting for it fails instead of timing out
+                assertThatThrownBy(() -> status.awaitSeeded(String.class, WAIT)).isInstanceOf(IllegalStateException.class);
+
+                // the status hears of the end before the events are published
+                assertThat(lastEvent.get(WAIT.toSeconds(), TimeUnit.SECONDS).getReport()).isSameAs(report);
+                assertThat(events).first().extracting(SeedingProgressEvent::getPhase).isEqualTo(SeedingProgressEvent.Phase.STARTED);
+                assertThat(events).last().isSameAs(lastEvent.get());
+                assertThat(events).filteredOn(e -> e.getPhase() == SeedingProgressEvent.Phase.ENTITY_SEEDED).hasSize(3);
+            } finally {
+                seeder.destroy();
+            }
+        }
+    }
+
+    @Test
+    void failedRunFailsEveryWaiter() {
+        SeedingStatus status = new SeedingStatus();
+        status.started();
+        status.entitySeeded(Customer.class, 10);
+        IllegalStateException error = new IllegalStateException("disk full");
+        status.failed(error);
+
+        assertThat(status.whenSeeded(Customer.class)).isCompletedWithValue(10);
+        assertThatThrownBy(() -> status.awaitSeeded(PurchaseOrder.class, WAIT)).hasCause(error);
+        assertThatThrownBy(() -> status.awaitFinished(WAIT)).hasCause(error);
+        assertThat(status.getState()).isEqualTo(SeedingStatus.State.FAILED);
+    }
+}
@@ -0,0 +1,69 @@
+package com.autodb.mockdb.config;
+
+import com.autodb.mockdb.TestDatabase;
+import com.autodb.mockdb.metrics.SeedingMetrics;
+import com.autodb.mockdb.metrics.SeedingReport;
+import com.autodb.mockdb.provider.RandomValueProvider;
+import com.autodb.mockdb.seeder.SeedingListener;
+import com.autodb.mockdb.seeder.implementation.MultiUnitMockDbSeeder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersistenceUnitsTest {
+
+    @Test
+    void everyUnitIsSeededWithItsOwnSettings() {
+        try (TestDatabase shop = TestDatabase.open("shop"); TestDatabase badges = TestDatabase.open("badge")) {
+            StaticListableBeanFactory beans = new StaticListableBeanFactory();
+            beans.addBean("shopEntityManagerFactory", shop.emf());
+            beans.addBean("badgeEntityManagerFactory", badges.emf());
+            MockEnvironment environment = new MockEnvironment()
+                    .withProperty("mockdb.seed", "6")
+                    .withProperty("mockdb.count", "12")
+                    .withProperty("mockdb.units.badgeEntityManagerFactory.count", "35");
+            MockDbProperties defaults = new MockDbProperties();
+            defaults.setSeed(6L);
+
+            assertThat(PersistenceUnits.several(beans)).isTrue();
+            List<MultiUnitMockDbSeeder.Unit> units = PersistenceUnits.discover(beans, environment, defaults,
+                    new RandomValueProvider(6L), new SeedingMetrics());
+            assertThat(units).extracting(MultiUnitMockDbSeeder.Unit::name)
+                    .containsExactly("badgeEntityManagerFactory", "shopEntityManagerFactory");
+
+            MultiUnitMockDbSeeder seeder = new MultiUnitMockDbSeeder(units);
+            AtomicReference<SeedingReport> report = new AtomicReference<>();
+            seeder.setListener(new SeedingListener() {
+                public void finished(SeedingReport r) {
+                    report.set(r);
+                }
+            });
+            seeder.seedAll();
+
+            assertThat(badges.count("Badge")).isEqualTo(35);
+            for (String table : List.of("Customer", "Product", "PurchaseOrder")) assertThat(shop.count(table)).isEqualTo(12);
+            assertThat(report.get()).isNotNull();
+            assertThat(report.get().failed()).isZero();
+        }
+    }
+
+    @Test
+    void aUnitCanBeLeftOut() {
+        try (TestDatabase shop = TestDatabase.open("shop"); TestDatabase badges = TestDatabase.open("badge")) {
+            StaticListableBeanFactory beans = new StaticListableBeanFactory();
+            beans.addBean("shopEntityManagerFactory", shop.emf());
+            beans.addBean("badgeEntityManagerFactory", badges.emf());
+            MockEnvironment environment = new MockEnvironment()
+                    .withProperty("mockdb.units.shopEntityManagerFactory.enabled", "false");
+
+            List<MultiUnitMockDbSeeder.Unit> units = PersistenceUnits.discover(beans, environment, new MockDbProperties(),
+                    new RandomValueProvider(1L), new SeedingMetrics());
+            assertThat(units).extracting(MultiUnitMockDbSeeder.Unit::name).containsExactly("badgeEntityManagerFactory");
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.autodb.mockdb.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogramReportsZero() {
+        assertThat(new LatencyHistogram().percentile(0.99)).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void percentilesAreWithinOneBucketAboveTheValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 1_000; micros++) histogram.record(micros * 1_000L);
+
+        assertThat(histogram.percentile(0.5).toNanos()).isBetween(500_000L, 562_500L);
+        assertThat(histogram.percentile(0.99).toNanos()).isBetween(990_000L, 1_000_000L);
+        assertThat(histogram.percentile(1.0)).isEqualTo(histogram.max()).isEqualTo(Duration.ofMillis(1));
+        assertThat(histogram.percentile(0.001).toNanos()).isEqualTo(1_000L);
+    }
+}
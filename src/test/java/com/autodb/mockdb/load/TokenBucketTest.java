@@ -0,0 +1,26 @@
+package com.autodb.mockdb.load;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void startsWithOneBatchThenWaitsForTheRate() {
+        TokenBucket bucket = new TokenBucket(1, 5);
+        assertThat(bucket.take()).isEqualTo(5);
+        assertThat(bucket.take()).isZero();
+        // five tokens at one per second
+        assertThat(bucket.nanosUntilNext()).isBetween(4_900_000_000L, 5_000_000_000L);
+    }
+
+    @Test
+    void idleTimeIsNotMadeUpBeyondTwoBatches() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1_000, 10);
+        Thread.sleep(100);
+        // a hundred tokens' worth of waiting, but only two batches are handed out back to back
+        int[] taken = {bucket.take(), bucket.take(), bucket.take()};
+        assertThat(taken).containsExactly(10, 10, 0);
+    }
+}
@@ -0,0 +1,14 @@
+package com.autodb.mockdb.model.badge;
+
+import jakarta.persistence.*;
+
+/** A composite unique constraint, which no generator covers, so the seeder's duplicate guard watches it. */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"holder", "level"}))
+public class Badge {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String holder;
+    private Integer level;
+}
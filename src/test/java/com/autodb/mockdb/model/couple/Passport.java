@@ -0,0 +1,14 @@
+package com.autodb.mockdb.model.couple;
+
+import jakarta.persistence.*;
+
+@Entity
+public class Passport {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String number;
+
+    @OneToOne(optional = false)
+    private Person owner;
+}
@@ -0,0 +1,15 @@
+package com.autodb.mockdb.model.couple;
+
+import jakarta.persistence.*;
+
+/** A bidirectional OneToOne: the passport holds the foreign key, the person only the inverse side. */
+@Entity
+public class Person {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+
+    @OneToOne(mappedBy = "owner")
+    private Passport passport;
+}
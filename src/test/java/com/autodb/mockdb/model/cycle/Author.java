@@ -0,0 +1,15 @@
+package com.autodb.mockdb.model.cycle;
+
+import jakarta.persistence.*;
+
+/** Cycle: Author -> Book -> Publisher -> Author, only Book.publisher NOT NULL. */
+@Entity
+public class Author {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+
+    @ManyToOne
+    private Book favourite;
+}
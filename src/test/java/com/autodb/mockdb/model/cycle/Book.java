@@ -0,0 +1,14 @@
+package com.autodb.mockdb.model.cycle;
+
+import jakarta.persistence.*;
+
+@Entity
+public class Book {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String title;
+
+    @ManyToOne(optional = false)
+    private Publisher publisher;
+}
@@ -0,0 +1,14 @@
+package com.autodb.mockdb.model.cycle;
+
+import jakarta.persistence.*;
+
+@Entity
+public class Publisher {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String company;
+
+    @ManyToOne
+    private Author founder;
+}
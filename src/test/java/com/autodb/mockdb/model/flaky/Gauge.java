@@ -0,0 +1,29 @@
+package com.autodb.mockdb.model.flaky;
+
+import jakarta.persistence.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** An entity whose construction can be made to fail once, to check what happens to the rows after it. */
+@Entity
+public class Gauge {
+
+    private static final AtomicInteger constructed = new AtomicInteger();
+    private static volatile int failAt = -1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String label;
+    private Double reading;
+
+    public Gauge() {
+        if (constructed.incrementAndGet() == failAt) throw new IllegalStateException("refused construction " + failAt);
+    }
+
+    /** The `n`-th instance built from now on (1-based) fails; 0 turns it off. */
+    public static void failConstruction(int n) {
+        constructed.set(0);
+        failAt = n == 0 ? -1 : n;
+    }
+}
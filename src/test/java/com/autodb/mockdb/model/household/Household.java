@@ -0,0 +1,35 @@
+package com.autodb.mockdb.model.household;
+
+import jakarta.persistence.*;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Households and their members, both compared on the generated id: rows that are not saved yet all equal each
+ * other, so grouping children by an equals-based map would merge every household into one.
+ */
+@Entity
+public class Household {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+
+    @OneToMany(mappedBy = "household")
+    private List<Member> members;
+
+    public List<Member> getMembers() {
+        return members;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Household other && Objects.equals(id, other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
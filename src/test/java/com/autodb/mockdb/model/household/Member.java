@@ -0,0 +1,34 @@
+package com.autodb.mockdb.model.household;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+@Entity
+public class Member {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+
+    @ManyToOne
+    private Household household;
+
+    public Household getHousehold() {
+        return household;
+    }
+
+    public void setHousehold(Household household) {
+        this.household = household;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Member other && Objects.equals(id, other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+}
@@ -0,0 +1,20 @@
+package com.autodb.mockdb.model.shop;
+
+import jakarta.persistence.*;
+
+import java.util.List;
+
+/** Shop model: customers place orders of several products each. */
+@Entity
+public class Customer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+
+    @Column(unique = true)
+    private String email;
+
+    @OneToMany(mappedBy = "customer")
+    private List<PurchaseOrder> orders;
+}
@@ -0,0 +1,21 @@
+package com.autodb.mockdb.model.shop;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Entity
+public class PurchaseOrder {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private LocalDate placedOn;
+    private Integer quantity;
+
+    @ManyToOne(optional = false)
+    private Customer customer;
+
+    @ManyToMany
+    private List<Product> items;
+}
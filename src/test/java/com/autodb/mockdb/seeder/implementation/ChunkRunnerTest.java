@@ -0,0 +1,54 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.TestDatabase;
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.metrics.SeedingReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkRunnerTest {
+
+    @Test
+    void retriedRowsKeepTheValuesTheyWouldHaveHad() {
+        try (TestDatabase clean = TestDatabase.open("badge"); TestDatabase failing = TestDatabase.open("badge")) {
+            clean.seed(props());
+            List<String> expected = badges(clean);
+
+            // one row of the second chunk is refused, so that chunk is rolled back and bisected
+            String refused = holderOfRow(clean, 15);
+            new JdbcTemplate(failing.dataSource()).execute(
+                    "alter table Badge add constraint no_refused check (holder <> '" + refused.replace("'", "''") + "')");
+            SeedingReport report = failing.seed(props());
+
+            List<String> survivors = new ArrayList<>(expected);
+            survivors.removeIf(row -> row.startsWith(refused + "|"));
+            assertThat(report.failed()).isPositive();
+            assertThat(survivors).hasSizeLessThan(expected.size());
+            assertThat(badges(failing)).isEqualTo(survivors);
+        }
+    }
+
+    private static MockDbProperties props() {
+        MockDbProperties props = new MockDbProperties();
+        props.setSeed(7L);
+        props.setCount(40);
+        props.setStreaming(true);
+        props.setChunkSize(10);
+        return props;
+    }
+
+    private static List<String> badges(TestDatabase db) {
+        return new JdbcTemplate(db.dataSource()).queryForList(
+                "select holder || '|' || level from Badge order by holder, level", String.class);
+    }
+
+    // rows are written in index order, so the n-th id (1-based) is row index n - 1
+    private static String holderOfRow(TestDatabase db, int id) {
+        return new JdbcTemplate(db.dataSource()).queryForObject("select holder from Badge where id = " + id, String.class);
+    }
+}
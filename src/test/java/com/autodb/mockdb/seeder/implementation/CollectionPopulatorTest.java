@@ -0,0 +1,106 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.TestDatabase;
+import com.autodb.mockdb.config.EntitySettings;
+import com.autodb.mockdb.config.FanOut;
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.model.household.Household;
+import com.autodb.mockdb.model.household.Member;
+import com.autodb.mockdb.util.SeededRandom;
+import com.autodb.mockdb.writer.EntityWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CollectionPopulatorTest {
+
+    @Test
+    void everyParentCollectsExactlyTheChildrenPointingAtIt() throws Exception {
+        FanOut fanOut = new FanOut();
+        fanOut.setMin(0);
+        fanOut.setMax(4);
+        ParentAssignment layout = ParentAssignment.of(fanOut, SeededRandom.stream(9L, Household.class, "members"), 20);
+        List<Object> households = new ArrayList<>();
+        for (int i = 0; i < 20; i++) households.add(new Household());
+        List<Object> members = new ArrayList<>();
+        for (int i = 0; i < layout.total(); i++) {
+            Member member = new Member();
+            member.setHousehold((Household) households.get(layout.parentOf(i)));
+            members.add(member);
+        }
+        Map<Class<?>, List<Object>> created = new LinkedHashMap<>();
+        created.put(Household.class, households);
+        created.put(Member.class, members);
+
+        try (TestDatabase db = TestDatabase.open("household")) {
+            new CollectionPopulator(db.em(), props(), created, new NoWrites()).populateCollections();
+        }
+
+        // the entities' own equals cannot tell unsaved rows apart, so compare by identity
+        Comparator<Object> identity = (a, b) -> a == b ? 0 : 1;
+        for (Object household : households) {
+            List<Object> expected = members.stream().filter(m -> ((Member) m).getHousehold() == household).toList();
+            assertThat(new ArrayList<Object>(((Household) household).getMembers())).usingElementComparator(identity).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void everyOrderGetsItsFanOutOfDistinctProducts() {
+        try (TestDatabase db = TestDatabase.open("shop")) {
+            db.seed(props());
+
+            JdbcTemplate jdbc = new JdbcTemplate(db.dataSource());
+            List<Long> links = jdbc.queryForList(
+                    "select count(*) from PurchaseOrder_Product group by PurchaseOrder_id", Long.class);
+            List<Long> distinct = jdbc.queryForList(
+                    "select count(distinct items_id) from PurchaseOrder_Product group by PurchaseOrder_id", Long.class);
+            assertThat(links).hasSize((int) db.count("PurchaseOrder")).containsOnly(3L);
+            assertThat(distinct).containsOnly(3L);
+        }
+    }
+
+    @Test
+    void sameSeedSameLinks() {
+        try (TestDatabase first = TestDatabase.open("shop"); TestDatabase second = TestDatabase.open("shop")) {
+            first.seed(props());
+            second.seed(props());
+            assertThat(second.contents().get("PURCHASEORDER_PRODUCT"))
+                    .isNotEmpty()
+                    .isEqualTo(first.contents().get("PURCHASEORDER_PRODUCT"));
+        }
+    }
+
+    private static MockDbProperties props() {
+        MockDbProperties props = new MockDbProperties();
+        props.setSeed(11L);
+        props.setCount(20);
+        FanOut three = new FanOut();
+        three.setMin(3);
+        three.setMax(3);
+        three.setDistribution(FanOut.Distribution.FIXED);
+        EntitySettings orders = new EntitySettings();
+        orders.getRelationships().put("items", three);
+        props.getEntities().put("PurchaseOrder", orders);
+        return props;
+    }
+
+    private static final class NoWrites implements EntityWriter {
+        @Override
+        public List<Object> insert(Class<?> entityType, List<Object> rows) {
+            return rows;
+        }
+
+        @Override
+        public void updateReference(Class<?> entityType, Field field, Object row) {}
+
+        @Override
+        public void link(Class<?> ownerType, Field field, Object owner, Collection<?> targets) {}
+
+        @Override
+        public void flush() {}
+    }
+}
@@ -0,0 +1,74 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.TestDatabase;
+import com.autodb.mockdb.config.EntitySettings;
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.metrics.SeedingReport;
+import com.autodb.mockdb.model.couple.Passport;
+import com.autodb.mockdb.model.couple.Person;
+import com.autodb.mockdb.model.cycle.Author;
+import com.autodb.mockdb.model.cycle.Book;
+import com.autodb.mockdb.model.cycle.Publisher;
+import com.autodb.mockdb.model.shop.Customer;
+import com.autodb.mockdb.model.shop.Product;
+import com.autodb.mockdb.model.shop.PurchaseOrder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DependencyOrderResolverTest {
+
+    @Test
+    void parentsComeInEarlierLayers() {
+        DependencyOrderResolver.Plan plan = DependencyOrderResolver.plan(List.of(PurchaseOrder.class, Product.class, Customer.class));
+
+        assertThat(plan.layers()).containsExactly(List.of(Customer.class, Product.class), List.of(PurchaseOrder.class));
+        assertThat(plan.deferred()).isEmpty();
+    }
+
+    @Test
+    void cycleDefersOnlyANullableReference() {
+        DependencyOrderResolver.Plan plan = DependencyOrderResolver.plan(List.of(Book.class, Publisher.class, Author.class));
+
+        // Book.publisher is NOT NULL, so Publisher goes first; Author.favourite is the edge left for later
+        assertThat(plan.order()).containsExactly(Author.class, Publisher.class, Book.class);
+        assertThat(plan.deferred()).containsOnlyKeys(Author.class);
+        assertThat(plan.deferred().get(Author.class)).extracting(FieldPlan::name).containsExactly("favourite");
+    }
+
+    @Test
+    void planIsTheSameForAnyInputOrder() {
+        assertThat(DependencyOrderResolver.plan(List.of(Publisher.class, Author.class, Book.class)).order())
+                .isEqualTo(DependencyOrderResolver.plan(List.of(Book.class, Author.class, Publisher.class)).order());
+    }
+
+    @Test
+    void inverseOneToOneIsNotADependency() {
+        DependencyOrderResolver.Plan plan = DependencyOrderResolver.plan(List.of(Passport.class, Person.class));
+
+        assertThat(plan.layers()).containsExactly(List.of(Person.class), List.of(Passport.class));
+        assertThat(plan.deferred()).isEmpty();
+    }
+
+    @Test
+    void everyPassportGetsItsOwnerAtInsert() {
+        try (TestDatabase db = TestDatabase.open("couple")) {
+            MockDbProperties props = new MockDbProperties();
+            props.setSeed(3L);
+            props.setCount(20);
+            // one passport: random owners would collide in the unique owner_id Hibernate maps a OneToOne to
+            EntitySettings passports = new EntitySettings();
+            passports.setCount(1);
+            props.getEntities().put("Passport", passports);
+            SeedingReport report = db.seed(props);
+
+            assertThat(report.failed()).isZero();
+            assertThat(report.entities()).extractingFromEntries(Map.Entry::getKey).contains("Passport", "Person");
+            assertThat(db.count("Passport")).isOne();
+            assertThat(db.count("Passport where owner_id is null")).isZero();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.TestDatabase;
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.model.flaky.Gauge;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityCreatorTest {
+
+    @AfterEach
+    void reset() {
+        Gauge.failConstruction(0);
+    }
+
+    @Test
+    void sameSeedGivesTheSameDataset() {
+        try (TestDatabase a = TestDatabase.open("shop"); TestDatabase b = TestDatabase.open("shop");
+             TestDatabase c = TestDatabase.open("shop")) {
+            a.seed(props(11L));
+            b.seed(props(11L));
+            c.seed(props(12L));
+
+            assertThat(b.contents()).isEqualTo(a.contents());
+            assertThat(c.contents()).isNotEqualTo(a.contents());
+        }
+    }
+
+    @Test
+    void failedRowDoesNotShiftTheValuesOfLaterRows() {
+        try (TestDatabase clean = TestDatabase.open("flaky"); TestDatabase failing = TestDatabase.open("flaky")) {
+            clean.seed(props(5L));
+            // row index 3, in the middle of the first batch
+            Gauge.failConstruction(4);
+            failing.seed(props(5L));
+
+            List<String> expected = gauges(clean, "id <> 4");
+            assertThat(expected).hasSize(29);
+            assertThat(gauges(failing, "1 = 1")).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void failedFirstRowOfABatchDoesNotShiftEither() {
+        try (TestDatabase clean = TestDatabase.open("flaky"); TestDatabase failing = TestDatabase.open("flaky")) {
+            clean.seed(props(5L));
+            Gauge.failConstruction(11);
+            failing.seed(props(5L));
+
+            assertThat(gauges(failing, "1 = 1")).isEqualTo(gauges(clean, "id <> 11"));
+        }
+    }
+
+    private static MockDbProperties props(long seed) {
+        MockDbProperties props = new MockDbProperties();
+        props.setSeed(seed);
+        props.setCount(30);
+        props.setBatchSize(10);
+        return props;
+    }
+
+    private static List<String> gauges(TestDatabase db, String where) {
+        return new JdbcTemplate(db.dataSource()).queryForList(
+                "select label || '|' || reading from Gauge where " + where + " order by label, reading", String.class);
+    }
+}
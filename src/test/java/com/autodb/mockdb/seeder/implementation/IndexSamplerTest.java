@@ -0,0 +1,34 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.util.SeededRandom;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexSamplerTest {
+
+    @Test
+    void picksDistinctIndicesInRange() {
+        long stream = SeededRandom.stream(5L, "links");
+        for (int row = 0; row < 2_000; row++) {
+            int n = 1 + row % 40;
+            int k = row % 7;
+            int[] picked = IndexSampler.distinct(SeededRandom.random(stream, row), n, k);
+            assertThat(picked).hasSize(Math.min(k, n)).doesNotHaveDuplicates();
+            for (int i : picked) assertThat(i).isBetween(0, n - 1);
+        }
+    }
+
+    @Test
+    void askingForTheWholePoolReturnsEveryIndex() {
+        int[] picked = IndexSampler.distinct(SeededRandom.random(SeededRandom.stream(5L, "all"), 0), 6, 9);
+        assertThat(picked).containsExactlyInAnyOrder(0, 1, 2, 3, 4, 5);
+    }
+
+    @Test
+    void sameRandomSameIndices() {
+        long stream = SeededRandom.stream(5L, "repeat");
+        assertThat(IndexSampler.distinct(SeededRandom.random(stream, 3), 1_000, 20))
+                .containsExactly(IndexSampler.distinct(SeededRandom.random(stream, 3), 1_000, 20));
+    }
+}
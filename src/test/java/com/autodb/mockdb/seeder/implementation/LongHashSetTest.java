@@ -0,0 +1,45 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongHashSetTest {
+
+    @Test
+    void addReportsRepeatsAcrossGrowth() {
+        LongHashSet set = new LongHashSet();
+        for (long h = 0; h < 10_000; h++) assertThat(set.add(h * 0x9e3779b97f4a7c15L)).isTrue();
+        for (long h = 0; h < 10_000; h++) assertThat(set.add(h * 0x9e3779b97f4a7c15L)).isFalse();
+        assertThat(set.size()).isEqualTo(10_000);
+    }
+
+    @Test
+    void zeroAndOneShareASlot() {
+        LongHashSet set = new LongHashSet();
+        assertThat(set.add(0)).isTrue();
+        assertThat(set.add(1)).isFalse();
+    }
+
+    @Test
+    void removeKeepsTheRestOfEveryProbeRunReachable() {
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(3);
+        // a narrow range of hashes makes long probe runs that wrap around the table
+        for (int i = 0; i < 20_000; i++) {
+            long h = random.nextLong(1, 3000) << 32 | random.nextLong(1, 512);
+            if (random.nextInt(3) == 0) {
+                assertThat(set.remove(h)).isEqualTo(expected.remove(h));
+            } else {
+                assertThat(set.add(h)).isEqualTo(expected.add(h));
+            }
+        }
+        assertThat(set.size()).isEqualTo(expected.size());
+        for (long h : expected) assertThat(set.add(h)).isFalse();
+    }
+}
@@ -0,0 +1,63 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.TestDatabase;
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.seeder.SeedingListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelEntityCreatorTest {
+
+    @Test
+    void parallelRunWritesTheSameRowsAsASequentialOne() {
+        try (TestDatabase sequential = TestDatabase.open("shop"); TestDatabase parallel = TestDatabase.open("shop")) {
+            sequential.seed(props(1));
+            parallel.seed(props(4));
+
+            // chunks commit in any order, so keys, and the rows a key position stands for, may differ; values may not
+            for (String select : List.of("select email from Customer", "select title || '|' || price from Product",
+                    "select placedOn || '|' || quantity from PurchaseOrder")) {
+                assertThat(values(parallel, select)).hasSize(60).isEqualTo(values(sequential, select));
+            }
+            assertThat(values(parallel, "select customer_id from PurchaseOrder where customer_id is null")).isEmpty();
+        }
+    }
+
+    @Test
+    void aLayerStartsOnlyOnceTheLayersItDependsOnAreWritten() {
+        try (TestDatabase db = TestDatabase.open("shop")) {
+            Map<String, Long> ordersWhenSeeded = new ConcurrentHashMap<>();
+            db.seed(props(4), seeder -> seeder.setListener(new SeedingListener() {
+                public void entitySeeded(Class<?> type, int rows) {
+                    ordersWhenSeeded.put(type.getSimpleName(), db.committedCount("PurchaseOrder"));
+                }
+            }));
+
+            assertThat(ordersWhenSeeded).containsEntry("Customer", 0L).containsEntry("Product", 0L)
+                    .containsEntry("PurchaseOrder", 60L);
+        }
+    }
+
+    private static MockDbProperties props(int parallelism) {
+        MockDbProperties props = new MockDbProperties();
+        props.setSeed(33L);
+        props.setCount(60);
+        props.setChunkSize(5);
+        props.setStreaming(true);
+        props.setParallelism(parallelism);
+        return props;
+    }
+
+    private static List<String> values(TestDatabase db, String select) {
+        List<String> rows = new ArrayList<>(new JdbcTemplate(db.dataSource()).queryForList(select, String.class));
+        rows.sort(null);
+        return rows;
+    }
+}
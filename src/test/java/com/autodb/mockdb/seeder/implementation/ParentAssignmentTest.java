@@ -0,0 +1,76 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.TestDatabase;
+import com.autodb.mockdb.config.EntitySettings;
+import com.autodb.mockdb.config.FanOut;
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.model.shop.Customer;
+import com.autodb.mockdb.util.SeededRandom;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParentAssignmentTest {
+
+    @Test
+    void fixedFanOutGivesEveryParentItsChildrenInOrder() {
+        ParentAssignment layout = ParentAssignment.of(fanOut(4, 4, FanOut.Distribution.FIXED), stream(), 10);
+        assertThat(layout.total()).isEqualTo(40);
+        for (int child = 0; child < 40; child++) assertThat(layout.parentOf(child)).isEqualTo(child / 4);
+        assertThat(layout.parentOf(-1)).isEqualTo(-1);
+        assertThat(layout.parentOf(40)).isEqualTo(-1);
+    }
+
+    @Test
+    void childlessParentsAreSkipped() {
+        ParentAssignment layout = ParentAssignment.of(fanOut(0, 3, FanOut.Distribution.UNIFORM), stream(), 500);
+        int[] children = new int[500];
+        int previous = 0;
+        for (int child = 0; child < layout.total(); child++) {
+            int parent = layout.parentOf(child);
+            assertThat(parent).isBetween(previous, 499);
+            children[parent]++;
+            previous = parent;
+        }
+        assertThat(children).contains(0).doesNotContain(4);
+    }
+
+    @Test
+    void sameStreamSameLayout() {
+        FanOut fanOut = fanOut(1, 9, FanOut.Distribution.GEOMETRIC);
+        ParentAssignment first = ParentAssignment.of(fanOut, stream(), 200);
+        ParentAssignment second = ParentAssignment.of(fanOut, stream(), 200);
+        assertThat(second.total()).isEqualTo(first.total());
+        for (int child = 0; child < first.total(); child++) assertThat(second.parentOf(child)).isEqualTo(first.parentOf(child));
+    }
+
+    @Test
+    void seededChildrenFollowTheParentsFanOut() {
+        MockDbProperties props = new MockDbProperties();
+        props.setSeed(3L);
+        props.setCount(15);
+        EntitySettings customers = new EntitySettings();
+        customers.getRelationships().put("orders", fanOut(2, 2, FanOut.Distribution.FIXED));
+        props.getEntities().put("Customer", customers);
+
+        try (TestDatabase db = TestDatabase.open("shop")) {
+            db.seed(props);
+            assertThat(db.count("PurchaseOrder")).isEqualTo(30);
+            assertThat(new JdbcTemplate(db.dataSource()).queryForList(
+                    "select count(*) from PurchaseOrder group by customer_id", Long.class)).hasSize(15).containsOnly(2L);
+        }
+    }
+
+    private static long stream() {
+        return SeededRandom.stream(3L, Customer.class, "orders");
+    }
+
+    private static FanOut fanOut(int min, int max, FanOut.Distribution distribution) {
+        FanOut fanOut = new FanOut();
+        fanOut.setMin(min);
+        fanOut.setMax(max);
+        fanOut.setDistribution(distribution);
+        return fanOut;
+    }
+}
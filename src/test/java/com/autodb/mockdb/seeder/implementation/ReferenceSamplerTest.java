@@ -0,0 +1,71 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.config.ReferenceDistribution;
+import com.autodb.mockdb.util.SeededRandom;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ReferenceSamplerTest {
+
+    private static final int PICKS = 1_000_000;
+
+    @Test
+    void zipfKeepsEveryRankWhenThePoolIsNotAPowerOfTwo() {
+        // 1025 rows sit in a capacity of 2048, where rank 1 used to map past the pool and vanish
+        int[] hits = picks(distribution(ReferenceDistribution.Kind.ZIPF), 1025);
+
+        assertThat(hits).doesNotContain(0);
+        int[] sorted = hits.clone();
+        Arrays.sort(sorted);
+        double top = sorted[sorted.length - 1];
+        // weights 1, 1/2, 1/3, ... under exponent 1
+        assertThat(sorted[sorted.length - 2] / top).isCloseTo(1 / 2.0, within(0.03));
+        assertThat(sorted[sorted.length - 3] / top).isCloseTo(1 / 3.0, within(0.03));
+        assertThat(sorted[sorted.length - 4] / top).isCloseTo(1 / 4.0, within(0.03));
+    }
+
+    @Test
+    void hotSetSendsItsShareToItsFractionOfThePool() {
+        int size = 1000;
+        int[] hits = picks(distribution(ReferenceDistribution.Kind.HOT_SET), size);
+
+        int[] sorted = hits.clone();
+        Arrays.sort(sorted);
+        long hot = 0;
+        for (int i = size - 200; i < size; i++) hot += sorted[i];
+        assertThat(hot / (double) PICKS).isCloseTo(0.8, within(0.01));
+        assertThat(hits).doesNotContain(0);
+    }
+
+    @Test
+    void popularRowsAreSpreadOverThePool() {
+        ReferenceSampler sampler = ReferenceSampler.of(distribution(ReferenceDistribution.Kind.ZIPF), 2048);
+        int[] hits = new int[1500];
+        RandomGenerator rnd = SeededRandom.random(SeededRandom.stream(2L, "spread"), 0);
+        for (int i = 0; i < PICKS; i++) hits[sampler.sample(rnd, hits.length)]++;
+        // the ten hottest rows are not simply the first ten written
+        Integer[] byHits = new Integer[hits.length];
+        for (int i = 0; i < hits.length; i++) byHits[i] = i;
+        Arrays.sort(byHits, (a, b) -> Integer.compare(hits[b], hits[a]));
+        assertThat(Arrays.asList(byHits).subList(0, 10)).anyMatch(position -> position >= 10);
+    }
+
+    private static int[] picks(ReferenceDistribution d, int size) {
+        ReferenceSampler.Cache samplers = new ReferenceSampler.Cache();
+        RandomGenerator rnd = SeededRandom.random(SeededRandom.stream(1L, "picks"), 0);
+        int[] hits = new int[size];
+        for (int i = 0; i < PICKS; i++) hits[samplers.pick(d, size, rnd)]++;
+        return hits;
+    }
+
+    private static ReferenceDistribution distribution(ReferenceDistribution.Kind kind) {
+        ReferenceDistribution d = new ReferenceDistribution();
+        d.setDistribution(kind);
+        return d;
+    }
+}
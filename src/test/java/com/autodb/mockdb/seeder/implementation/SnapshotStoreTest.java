@@ -0,0 +1,66 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.TestDatabase;
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.metrics.SeedingReport;
+import com.autodb.mockdb.model.shop.Customer;
+import com.autodb.mockdb.model.shop.Product;
+import com.autodb.mockdb.model.shop.PurchaseOrder;
+import com.autodb.mockdb.provider.RandomValueProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotStoreTest {
+
+    private static final List<Class<?>> SHOP = List.of(Customer.class, Product.class, PurchaseOrder.class);
+
+    @TempDir
+    Path snapshots;
+
+    @Test
+    void savedSnapshotLoadsBackTheSameRows() throws Exception {
+        try (TestDatabase first = TestDatabase.open("shop"); TestDatabase second = TestDatabase.open("shop")) {
+            SeedingReport seeded = first.seed(props(42L));
+            SeedingReport loaded = second.seed(props(42L));
+
+            assertThat(seeded.stages()).containsKeys("create", "snapshot-save");
+            assertThat(loaded.stages()).containsKey("snapshot-load").doesNotContainKey("create");
+            assertThat(second.count("PurchaseOrder")).isPositive();
+            assertThat(second.contents()).isEqualTo(first.contents());
+            try (Stream<Path> files = Files.list(snapshots)) {
+                assertThat(files).hasSize(1);
+            }
+        }
+    }
+
+    @Test
+    void keyCountsOnlyAConfiguredSeed() {
+        MockDbProperties unseeded = props(null);
+        MockDbProperties other = props(null);
+        assertThat(unseeded.resolveSeed()).isNotEqualTo(other.resolveSeed());
+        assertThat(key(unseeded)).isEqualTo(key(other));
+
+        assertThat(key(props(1L))).isEqualTo(key(props(1L)));
+        assertThat(key(props(1L))).isNotEqualTo(key(props(2L))).isNotEqualTo(key(unseeded));
+    }
+
+    private MockDbProperties props(Long seed) {
+        MockDbProperties props = new MockDbProperties();
+        props.setCount(30);
+        props.setSeed(seed);
+        props.getSnapshot().setEnabled(true);
+        props.getSnapshot().setDirectory(snapshots.toString());
+        return props;
+    }
+
+    private static String key(MockDbProperties props) {
+        return SnapshotStore.key(SHOP, props, new RandomValueProvider(props.resolveSeed()));
+    }
+}
@@ -0,0 +1,76 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.TestDatabase;
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.seeder.SeedingListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingEntityCreatorTest {
+
+    @Test
+    void streamingRunWritesWhatABlockingRunWrites() {
+        try (TestDatabase blocking = TestDatabase.open("shop"); TestDatabase streaming = TestDatabase.open("shop")) {
+            blocking.seed(props(50));
+            MockDbProperties chunked = props(50);
+            chunked.setStreaming(true);
+            chunked.setChunkSize(7);
+            streaming.seed(chunked);
+
+            assertThat(streaming.count("PurchaseOrder")).isEqualTo(50);
+            assertThat(streaming.contents()).isEqualTo(blocking.contents());
+        }
+    }
+
+    @Test
+    void everyEntityIsCommittedAsSoonAsItIsWritten() {
+        try (TestDatabase db = TestDatabase.open("shop")) {
+            MockDbProperties props = props(30);
+            props.setStreaming(true);
+            props.setChunkSize(8);
+            Map<String, Long> visible = new LinkedHashMap<>();
+            db.seed(props, seeder -> seeder.setListener(new SeedingListener() {
+                public void entitySeeded(Class<?> type, int rows) {
+                    visible.put(type.getSimpleName(), db.committedCount(type.getSimpleName()));
+                }
+            }));
+
+            assertThat(visible).containsEntry("Customer", 30L).containsEntry("Product", 30L).containsEntry("PurchaseOrder", 30L);
+        }
+    }
+
+    @Test
+    void incrementalRunsTopTablesUpToTheirCounts() {
+        try (TestDatabase db = TestDatabase.open("shop"); TestDatabase full = TestDatabase.open("shop")) {
+            MockDbProperties first = props(20);
+            first.setIncremental(true);
+            db.seed(first);
+            Map<String, List<String>> seeded = db.contents();
+
+            // the tables are full, so a restart writes nothing
+            db.seed(first);
+            assertThat(db.contents()).isEqualTo(seeded);
+
+            MockDbProperties more = props(30);
+            more.setIncremental(true);
+            db.seed(more);
+            for (String table : List.of("Customer", "Product", "PurchaseOrder")) assertThat(db.count(table)).isEqualTo(30);
+            seeded.forEach((table, rows) -> assertThat(db.contents().get(table)).containsAll(rows));
+            // row indexes continue after the existing rows, so the top-up matches one full run
+            full.seed(props(30));
+            assertThat(db.contents().get("CUSTOMER")).isEqualTo(full.contents().get("CUSTOMER"));
+        }
+    }
+
+    private static MockDbProperties props(int count) {
+        MockDbProperties props = new MockDbProperties();
+        props.setSeed(21L);
+        props.setCount(count);
+        return props;
+    }
+}
@@ -0,0 +1,43 @@
+package com.autodb.mockdb.seeder.implementation;
+
+import com.autodb.mockdb.TestDatabase;
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.metrics.SeedingReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UniqueGuardTest {
+
+    @Test
+    void incrementalRunAvoidsTheValuesAlreadyInTheTable() {
+        try (TestDatabase reference = TestDatabase.open("badge"); TestDatabase existing = TestDatabase.open("badge")) {
+            reference.seed(props(40, false));
+            // the table already holds exactly the values rows 20..39 would get
+            JdbcTemplate jdbc = new JdbcTemplate(existing.dataSource());
+            for (Map<String, Object> row : new JdbcTemplate(reference.dataSource())
+                    .queryForList("select holder, level from Badge where id > 20 order by id")) {
+                jdbc.update("insert into Badge (holder, level) values (?, ?)", row.get("holder"), row.get("level"));
+            }
+
+            SeedingReport report = existing.seed(props(40, true));
+
+            assertThat(report.failed()).isZero();
+            assertThat(existing.count("Badge")).isEqualTo(40);
+            List<String> badges = jdbc.queryForList("select holder || '|' || level from Badge", String.class);
+            assertThat(badges).doesNotHaveDuplicates();
+        }
+    }
+
+    private static MockDbProperties props(int count, boolean incremental) {
+        MockDbProperties props = new MockDbProperties();
+        props.setSeed(7L);
+        props.setCount(count);
+        props.setIncremental(incremental);
+        return props;
+    }
+}
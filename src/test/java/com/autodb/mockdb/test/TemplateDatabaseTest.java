@@ -0,0 +1,54 @@
+package com.autodb.mockdb.test;
+
+import com.autodb.mockdb.TestDatabase;
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.metrics.SeedingReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemplateDatabaseTest {
+
+    @TempDir
+    Path templates;
+
+    @Test
+    void secondContextRestoresTheTemplateInsteadOfSeeding() {
+        try (TestDatabase first = TestDatabase.open("shop"); TestDatabase second = TestDatabase.open("shop")) {
+            // each context draws its own seed when mockdb.seed is unset
+            SeedingReport seeded = first.seed(props(), s -> s.setTemplate(new TemplateDatabase(first.dataSource(), templates)));
+            SeedingReport restored = second.seed(props(), s -> s.setTemplate(new TemplateDatabase(second.dataSource(), templates)));
+
+            assertThat(seeded.stages()).containsKey("create");
+            assertThat(restored.stages()).containsKey("template-restore").doesNotContainKey("create");
+            assertThat(second.contents()).isEqualTo(first.contents());
+        }
+    }
+
+    @Test
+    void resetPutsBackTheTemplateRows() throws Exception {
+        try (TestDatabase db = TestDatabase.open("shop")) {
+            TemplateDatabase template = new TemplateDatabase(db.dataSource(), templates);
+            db.seed(props(), s -> s.setTemplate(template));
+            long customers = db.count("Customer");
+
+            db.inTransaction(em -> em.createNativeQuery("delete from PurchaseOrder_Product").executeUpdate());
+            db.inTransaction(em -> em.createNativeQuery("delete from PurchaseOrder").executeUpdate());
+            db.inTransaction(em -> em.createNativeQuery("delete from Customer").executeUpdate());
+            template.reset();
+
+            assertThat(db.count("Customer")).isEqualTo(customers).isPositive();
+        }
+    }
+
+    private MockDbProperties props() {
+        MockDbProperties props = new MockDbProperties();
+        props.setCount(20);
+        props.getTemplate().setEnabled(true);
+        props.getTemplate().setDirectory(templates.toString());
+        return props;
+    }
+}
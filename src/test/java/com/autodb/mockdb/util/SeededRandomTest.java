@@ -0,0 +1,44 @@
+package com.autodb.mockdb.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeededRandomTest {
+
+    @Test
+    void drawsArePureFunctionsOfSeedEntityFieldAndIndex() {
+        long stream = SeededRandom.stream(42L, String.class, "name");
+        assertThat(SeededRandom.stream(42L, String.class, "name")).isEqualTo(stream);
+        assertThat(SeededRandom.stream(43L, String.class, "name")).isNotEqualTo(stream);
+        assertThat(SeededRandom.stream(42L, String.class, "email")).isNotEqualTo(stream);
+        assertThat(SeededRandom.stream(42L, Integer.class, "name")).isNotEqualTo(stream);
+
+        assertThat(SeededRandom.at(stream, 7)).isEqualTo(SeededRandom.at(stream, 7)).isNotEqualTo(SeededRandom.at(stream, 8));
+        assertThat(SeededRandom.random(stream, 7).nextLong()).isEqualTo(SeededRandom.random(stream, 7).nextLong());
+    }
+
+    @Test
+    void boundedDrawsStayInRange() {
+        long stream = SeededRandom.stream(1L, "bounds");
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(SeededRandom.nextInt(stream, i, 7)).isBetween(0, 6);
+            assertThat(SeededRandom.nextDouble(stream, i)).isGreaterThanOrEqualTo(0).isLessThan(1);
+        }
+    }
+
+    @Test
+    void permuteNeverRepeatsAValue() {
+        long stream = SeededRandom.stream(99L, "unique");
+        BitSet seen = new BitSet();
+        for (int i = 0; i < 1 << 20; i++) {
+            int x = SeededRandom.permute(stream, i);
+            assertThat(x).isNotNegative();
+            assertThat(seen.get(x)).as("index %d repeats %d", i, x).isFalse();
+            seen.set(x);
+        }
+        assertThat(SeededRandom.permute(stream, 12345)).isEqualTo(SeededRandom.permute(stream, 12345));
+    }
+}
@@ -0,0 +1,69 @@
+package com.autodb.mockdb.writer.implementation;
+
+import com.autodb.mockdb.TestDatabase;
+import com.autodb.mockdb.config.MockDbProperties;
+import com.autodb.mockdb.model.shop.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdReservationsTest {
+
+    @Test
+    void reservedKeysGiveTheSameDatasetAndKeepTheCounter() {
+        try (TestDatabase reserved = TestDatabase.hsqldb("shop"); TestDatabase readBack = TestDatabase.hsqldb("shop")) {
+            reserved.seed(props(true));
+            readBack.seed(props(false));
+
+            assertThat(reserved.contents()).isEqualTo(readBack.contents());
+            JdbcTemplate jdbc = new JdbcTemplate(reserved.dataSource());
+            assertThat(jdbc.queryForList("select id from Customer order by id", Long.class))
+                    .containsExactlyElementsOf(LongStream.rangeClosed(1, 20).boxed().toList());
+            // the identity counter moved past the explicit keys, so the application's next row does not collide
+            jdbc.update("insert into Customer (email) values ('app@example.com')");
+            assertThat(jdbc.queryForObject("select id from Customer where email = 'app@example.com'", Long.class)).isEqualTo(21);
+        }
+    }
+
+    @Test
+    void concurrentWritersOnHsqldbReadKeysBack() throws Exception {
+        try (TestDatabase db = TestDatabase.hsqldb("shop"); Connection conn = db.dataSource().getConnection()) {
+            assertThat(new IdReservations(10, false).supported(conn)).isTrue();
+            assertThat(new IdReservations(10, true).supported(conn)).isFalse();
+
+            JdbcBatchEntityWriter writer = new JdbcBatchEntityWriter(db.em(), 10);
+            writer.reserveIds(10, true);
+            List<String> refused = new ArrayList<>();
+            writer.setRejectionHandler((type, reason) -> refused.add(reason));
+            db.inTransaction(em -> writer.insert(Product.class, products(3)));
+            // an application insert between two batches takes the next key from the counter
+            new JdbcTemplate(db.dataSource()).update("insert into Product (title) values ('app')");
+            db.inTransaction(em -> writer.insert(Product.class, products(3)));
+
+            assertThat(refused).isEmpty();
+            assertThat(db.count("Product")).isEqualTo(7);
+        }
+    }
+
+    private static MockDbProperties props(boolean reserveIds) {
+        MockDbProperties props = new MockDbProperties();
+        props.setSeed(8L);
+        props.setCount(20);
+        props.setWriteEngine(MockDbProperties.WriteEngine.JDBC_BATCH);
+        props.setReserveIds(reserveIds);
+        props.setIdBlockSize(8);
+        return props;
+    }
+
+    private static List<Object> products(int n) {
+        List<Object> rows = new ArrayList<>();
+        for (int i = 0; i < n; i++) rows.add(new Product());
+        return rows;
+    }
+}